@@ -0,0 +1,300 @@
+package com.bosslevels;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.Icon;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Every boss icon at every size the plugin draws, scaled once with high-quality interpolation and packed
+ * into one atlas image per size (plus a 2x atlas for HiDPI screens). A boss's icon is the atlas cell at
+ * its ordinal, so the overlay and panel draw a sub-region of one image instead of managing 300 small
+ * ones, and nothing is scaled at paint time.
+ * <p>
+ * Icons are loaded in parallel off the start path (loadAsync); until a boss's icon arrives its cell
+ * holds a neutral placeholder, and the caller is told when to repaint it. Cells are only written under
+ * the cache's lock; readers just draw, so at worst one frame shows a cell mid-copy.
+ */
+@Slf4j
+final class BossIconCache
+{
+	enum Size
+	{
+		OVERLAY(16),
+		GRID(19),
+		DETAIL(20);
+
+		final int px;
+
+		Size(int px)
+		{
+			this.px = px;
+		}
+	}
+
+	static final int HIDPI_SCALE = 2;
+	static final int COLUMNS = 10;
+
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+	private static final Size[] SIZES = Size.values();
+	private static final int ROWS = (BOSSES.length + COLUMNS - 1) / COLUMNS;
+
+	private static final Color PLACEHOLDER = new Color(60, 60, 60);
+
+	// Indexed by Size ordinal, then 0 = 1x / 1 = 2x
+	private final BufferedImage[][] atlases = new BufferedImage[SIZES.length][2];
+	private final Icon[][] icons = new Icon[SIZES.length][BOSSES.length];
+
+	// clear() starts a new generation so late loads are dropped
+	private volatile int generation;
+
+	BossIconCache()
+	{
+		for (Size size : SIZES)
+		{
+			atlases[size.ordinal()][0] = new BufferedImage(COLUMNS * size.px, ROWS * size.px, BufferedImage.TYPE_INT_ARGB);
+			atlases[size.ordinal()][1] = new BufferedImage(COLUMNS * size.px * HIDPI_SCALE, ROWS * size.px * HIDPI_SCALE, BufferedImage.TYPE_INT_ARGB);
+			for (BossDefinition boss : BOSSES)
+			{
+				icons[size.ordinal()][boss.ordinal()] = new AtlasIcon(size, boss);
+			}
+		}
+		fillPlaceholders();
+	}
+
+	/**
+	 * Loads and scales every boss icon as independent tasks on the pool. onLoaded is called (on a pool
+	 * thread) for each boss whose icon is ready; the returned future completes when all are done.
+	 */
+	CompletableFuture<Void> loadAsync(Function<BossDefinition, BufferedImage> loader, Executor pool, Consumer<BossDefinition> onLoaded)
+	{
+		final int gen = generation;
+		final long start = System.nanoTime();
+
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[BOSSES.length];
+		for (BossDefinition boss : BOSSES)
+		{
+			tasks[boss.ordinal()] = CompletableFuture.runAsync(() ->
+			{
+				BufferedImage source = loader.apply(boss);
+				if (source != null && put(boss, source, gen))
+				{
+					onLoaded.accept(boss);
+				}
+			}, pool);
+		}
+
+		return CompletableFuture.allOf(tasks).whenComplete((v, e) ->
+		{
+			if (e != null)
+			{
+				log.warn("Failed to load some boss icons", e);
+			}
+			log.debug("Loaded boss icons in {}ms", (System.nanoTime() - start) / 1_000_000);
+		});
+	}
+
+	/**
+	 * Scales the source to every size and copies it into the boss's atlas cells. Call off the EDT.
+	 */
+	void put(BossDefinition boss, BufferedImage source)
+	{
+		put(boss, source, generation);
+	}
+
+	private boolean put(BossDefinition boss, BufferedImage source, int gen)
+	{
+		BufferedImage[][] scaled = new BufferedImage[SIZES.length][2];
+		for (Size size : SIZES)
+		{
+			scaled[size.ordinal()][0] = scale(source, size.px, size.px);
+			scaled[size.ordinal()][1] = scale(source, size.px * HIDPI_SCALE, size.px * HIDPI_SCALE);
+		}
+
+		synchronized (this)
+		{
+			if (gen != generation)
+			{
+				return false;
+			}
+			for (Size size : SIZES)
+			{
+				blit(size, 0, boss, scaled[size.ordinal()][0]);
+				blit(size, 1, boss, scaled[size.ordinal()][1]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Draws the boss's icon (or its placeholder) with its top-left corner at x, y. Uses the 2x atlas when
+	 * the graphics are scaled up.
+	 */
+	void draw(Graphics2D g, Size size, BossDefinition boss, int x, int y)
+	{
+		int scale = g.getTransform().getScaleX() > 1 ? HIDPI_SCALE : 1;
+		int cell = size.px * scale;
+		int i = boss.ordinal();
+		int sx = (i % COLUMNS) * cell;
+		int sy = (i / COLUMNS) * cell;
+		g.drawImage(atlases[size.ordinal()][scale - 1],
+				x, y, x + size.px, y + size.px,
+				sx, sy, sx + cell, sy + cell,
+				null);
+	}
+
+	/**
+	 * Shared Swing icon that paints the boss's atlas cell; it always shows whatever the cell holds, so a
+	 * late load only needs a repaint.
+	 */
+	Icon icon(Size size, BossDefinition boss)
+	{
+		return icons[size.ordinal()][boss.ordinal()];
+	}
+
+	synchronized void clear()
+	{
+		generation++;
+		fillPlaceholders();
+	}
+
+	/**
+	 * Bytes of pixel data held by the atlases.
+	 */
+	long pixelBytes()
+	{
+		long bytes = 0;
+		for (BufferedImage[] pair : atlases)
+		{
+			for (BufferedImage atlas : pair)
+			{
+				bytes += (long) atlas.getWidth() * atlas.getHeight() * 4;
+			}
+		}
+		return bytes;
+	}
+
+	private synchronized void fillPlaceholders()
+	{
+		for (Size size : SIZES)
+		{
+			BufferedImage small = placeholder(size.px);
+			BufferedImage large = placeholder(size.px * HIDPI_SCALE);
+			for (BossDefinition boss : BOSSES)
+			{
+				blit(size, 0, boss, small);
+				blit(size, 1, boss, large);
+			}
+		}
+	}
+
+	private void blit(Size size, int scaleIndex, BossDefinition boss, BufferedImage image)
+	{
+		int cell = size.px * (scaleIndex + 1);
+		int i = boss.ordinal();
+		Graphics2D g = atlases[size.ordinal()][scaleIndex].createGraphics();
+		try
+		{
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(image, (i % COLUMNS) * cell, (i / COLUMNS) * cell, null);
+		}
+		finally
+		{
+			g.dispose();
+		}
+	}
+
+	private final class AtlasIcon implements Icon
+	{
+		private final Size size;
+		private final BossDefinition boss;
+
+		AtlasIcon(Size size, BossDefinition boss)
+		{
+			this.size = size;
+			this.boss = boss;
+		}
+
+		@Override
+		public void paintIcon(Component c, Graphics g, int x, int y)
+		{
+			draw((Graphics2D) g, size, boss, x, y);
+		}
+
+		@Override
+		public int getIconWidth()
+		{
+			return size.px;
+		}
+
+		@Override
+		public int getIconHeight()
+		{
+			return size.px;
+		}
+	}
+
+	private static BufferedImage placeholder(int px)
+	{
+		BufferedImage out = new BufferedImage(px, px, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = out.createGraphics();
+		try
+		{
+			int inset = Math.max(1, px / 8);
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			g.setColor(PLACEHOLDER);
+			g.fillRoundRect(inset, inset, px - 2 * inset, px - 2 * inset, px / 3, px / 3);
+		}
+		finally
+		{
+			g.dispose();
+		}
+		return out;
+	}
+
+	/**
+	 * Resizes to exactly w x h. Downscales halve in steps first so bilinear filtering never skips source
+	 * pixels; the last step is bicubic.
+	 */
+	static BufferedImage scale(BufferedImage source, int w, int h)
+	{
+		BufferedImage current = source;
+		int cw = source.getWidth();
+		int ch = source.getHeight();
+
+		while (cw / 2 >= w && ch / 2 >= h)
+		{
+			cw /= 2;
+			ch /= 2;
+			current = draw(current, cw, ch, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		}
+		return draw(current, w, h, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+	}
+
+	private static BufferedImage draw(BufferedImage source, int w, int h, Object interpolation)
+	{
+		BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = out.createGraphics();
+		try
+		{
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			g.drawImage(source, 0, 0, w, h, null);
+		}
+		finally
+		{
+			g.dispose();
+		}
+		return out;
+	}
+}
@@ -21,6 +21,29 @@ public interface BossLevelsConfig extends Config
     )
     String notifSection = "notifSection";
 
+    @ConfigSection(
+            name = "Levels",
+            description = "Level cap and virtual levels",
+            position = 2
+    )
+    String levelsSection = "levelsSection";
+
+    @ConfigSection(
+            name = "Storage",
+            description = "How boss progress is saved",
+            position = 3,
+            closedByDefault = true
+    )
+    String storageSection = "storageSection";
+
+    @ConfigSection(
+            name = "Hiscores",
+            description = "Hiscore lookups",
+            position = 4,
+            closedByDefault = true
+    )
+    String hiscoresSection = "hiscoresSection";
+
     // ---------- XP Drops toggles ----------
     @ConfigItem(
             keyName = "enableXpDrops",
@@ -175,4 +198,56 @@ public interface BossLevelsConfig extends Config
             section = notifSection
     )
     default boolean enableFireworks() { return true; }
+
+    @ConfigItem(
+            keyName = "enableMilestoneMessages",
+            name = "Milestone messages",
+            description = "Print a chat line for each milestone passed on a level-up",
+            position = 2,
+            section = notifSection
+    )
+    default boolean enableMilestoneMessages() { return true; }
+
+    // ---------- Levels ----------
+    public enum LevelCap { LEVEL_99, VIRTUAL_126, VIRTUAL_200M }
+
+    @ConfigItem(
+            keyName = "levelCap",
+            name = "Level cap",
+            description = "Stop at 99, continue to virtual level 126, or continue to 126 and cap XP at 200M",
+            position = 0,
+            section = levelsSection
+    )
+    default LevelCap levelCap() { return LevelCap.LEVEL_99; }
+
+    // ---------- Storage ----------
+    @ConfigItem(
+            keyName = "compactStorage",
+            name = "Compact storage",
+            description = "Save all boss progress (XP and last seen KC) in a single packed value instead of one entry per boss",
+            position = 0,
+            section = storageSection
+    )
+    default boolean compactStorage() { return false; }
+
+    // ---------- Hiscores ----------
+    @Range(min = 0, max = 120)
+    @ConfigItem(
+            keyName = "hiscoreCacheMinutes",
+            name = "Reuse lookups (minutes)",
+            description = "Reuse a hiscore lookup for this long instead of looking up again on every login or world hop (0 = always look up)",
+            position = 0,
+            section = hiscoresSection
+    )
+    default int hiscoreCacheMinutes() { return 10; }
+
+    @Range(min = 0, max = 720)
+    @ConfigItem(
+            keyName = "hiscoreSyncMinutes",
+            name = "Sync every (minutes)",
+            description = "While logged in, look up the hiscores again once the last lookup is this old; failed lookups are retried with increasing delays (0 = only on login)",
+            position = 1,
+            section = hiscoresSection
+    )
+    default int hiscoreSyncMinutes() { return 30; }
 }
@@ -7,10 +7,8 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.Map;
 import net.runelite.api.Client;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
@@ -42,7 +40,7 @@ public class BossLevelsOverlay extends Overlay
     private final Client client;
     private final BossColorProvider colorProvider;
     private final BossLevelsConfig config;
-    private final Map<BossDefinition, BufferedImage> iconMap16;
+    private final BossIconCache icons;
 
     private final Deque<Drop> drops = new ArrayDeque<>();
 
@@ -50,13 +48,13 @@ public class BossLevelsOverlay extends Overlay
             Client client,
             BossColorProvider colorProvider,
             BossLevelsConfig config,
-            Map<BossDefinition, BufferedImage> iconMap16
+            BossIconCache icons
     )
     {
         this.client = client;
         this.colorProvider = colorProvider;
         this.config = config;
-        this.iconMap16 = iconMap16;
+        this.icons = icons;
 
         setPosition(OverlayPosition.DYNAMIC);
         setLayer(OverlayLayer.ABOVE_WIDGETS);
@@ -146,23 +144,19 @@ public class BossLevelsOverlay extends Overlay
                 text = d.boss.kcName + " " + text;
             }
 
-            int iconSize = 16;
+            int iconSize = BossIconCache.Size.OVERLAY.px;
             int iconGap = 6;
             int textX = x;
 
             if (config.showBossMarker())
             {
-                BufferedImage icon = iconMap16.get(d.boss);
-                if (icon != null)
-                {
-                    FontMetrics fm = g.getFontMetrics();
-                    int ascent = fm.getAscent();
-                    int textTop = y - ascent;
-                    int iconY = textTop + Math.max(0, (ascent - iconSize) / 2);
-
-                    g.drawImage(icon, x, iconY, null);
-                    textX = x + iconSize + iconGap;
-                }
+                FontMetrics fm = g.getFontMetrics();
+                int ascent = fm.getAscent();
+                int textTop = y - ascent;
+                int iconY = textTop + Math.max(0, (ascent - iconSize) / 2);
+
+                icons.draw(g, BossIconCache.Size.OVERLAY, d.boss, x, iconY);
+                textX = x + iconSize + iconGap;
             }
 
             // shadow
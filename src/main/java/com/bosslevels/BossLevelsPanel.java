@@ -7,20 +7,24 @@ import java.awt.Component;
 import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.Graphics;
 import java.awt.GridLayout;
-import java.awt.Image;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.image.BufferedImage;
 import java.text.NumberFormat;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 import javax.swing.JButton;
+import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
@@ -28,16 +32,49 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.ui.PluginPanel;
 
+@Slf4j
 public class BossLevelsPanel extends PluginPanel
 {
     private final CardLayout cardLayout = new CardLayout();
     private final JPanel root = new JPanel(cardLayout);
 
     // Overview (grid)
+    private static final BossDefinition[] BOSSES = BossDefinition.values();
+    private static final Set<BossDefinition> ALL_BOSSES = Collections.unmodifiableSet(EnumSet.allOf(BossDefinition.class));
+
     private final JPanel grid = new JPanel();
-    private final JScrollPane gridScroll;
+    private JScrollPane gridScroll;
+
+    // One cell per boss, built once; updates only touch these labels
+    private final JLabel[] cellIcons = new JLabel[BOSSES.length];
+    private final JLabel[] cellLevels = new JLabel[BOSSES.length];
+
+    // Pre-scaled shared icons; cells and the detail title only ever pick from it
+    private BossIconCache icons;
+
+    // Cells and the detail card are built on first open (onActivate). Until then, and whenever the panel
+    // is hidden, changes are only recorded in changedBosses and applied when it is shown again.
+    private boolean built;
+    private volatile boolean active;
+
+    // Pending changes for the next EDT pass: the union of changed bosses plus the latest selection (a
+    // boss to open, or back to the overview). passQueued keeps at most one pass queued; all guarded by
+    // changedBosses.
+    private final Set<BossDefinition> changedBosses = EnumSet.noneOf(BossDefinition.class);
+    private BossDefinition changedFocus;
+    private boolean changedToOverview;
+    private boolean passQueued;
+    private long passes;
+    private ToLongFunction<BossDefinition> xpOf;
+    private Map<BossDefinition, Integer> levelMap;
+
+    // EDT cost of overview updates, for the debug log
+    private long overviewUpdates;
+    private long overviewNanos;
+    private long overviewMaxNanos;
 
     // NEW: Pull hiscores
     private final JButton hiscoresButton = new JButton("Pull hiscores data");
@@ -50,6 +87,10 @@ public class BossLevelsPanel extends PluginPanel
     private final JLabel detailTitle = new JLabel();
     private final JLabel detailXp = new JLabel();
     private final JLabel detailPct = new JLabel();
+    private final JLabel detailNext = new JLabel();
+    private final JLabel detailGains = new JLabel();
+    private final JLabel detailRecent = new JLabel();
+    private final DailyKillsChart detailChart = new DailyKillsChart();
     private final JTextArea milestonesArea = new JTextArea();
 
     private final NumberFormat nf = NumberFormat.getInstance();
@@ -61,9 +102,37 @@ public class BossLevelsPanel extends PluginPanel
     {
         setLayout(new BorderLayout());
         add(root, BorderLayout.CENTER);
+    }
+
+    @Override
+    public void onActivate()
+    {
+        build();
+        active = true;
+        applyChanges();
+    }
+
+    @Override
+    public void onDeactivate()
+    {
+        active = false;
+    }
+
+    /**
+     * Builds the cells and the detail card; only the first call does anything. EDT.
+     */
+    private void build()
+    {
+        if (built)
+        {
+            return;
+        }
+        built = true;
+        long start = System.nanoTime();
 
         /* ---------- Overview card ---------- */
         grid.setLayout(new GridLayout(0, 3, 18, 18));
+        buildGrid();
 
         JPanel gridWrapper = new JPanel(new BorderLayout());
         gridWrapper.setOpaque(false);
@@ -114,6 +183,27 @@ public class BossLevelsPanel extends PluginPanel
         header.add(Box.createVerticalStrut(2));
         header.add(statsRow);
 
+        // Row 3: next milestone
+        detailNext.setForeground(Color.LIGHT_GRAY);
+        detailNext.setAlignmentX(Component.LEFT_ALIGNMENT);
+        header.add(Box.createVerticalStrut(2));
+        header.add(detailNext);
+
+        // Row 4: xp gained today / this week
+        detailGains.setForeground(Color.LIGHT_GRAY);
+        detailGains.setAlignmentX(Component.LEFT_ALIGNMENT);
+        header.add(Box.createVerticalStrut(2));
+        header.add(detailGains);
+
+        // Row 5: kills per day
+        detailRecent.setForeground(Color.LIGHT_GRAY);
+        detailRecent.setAlignmentX(Component.LEFT_ALIGNMENT);
+        detailChart.setAlignmentX(Component.LEFT_ALIGNMENT);
+        header.add(Box.createVerticalStrut(6));
+        header.add(detailRecent);
+        header.add(Box.createVerticalStrut(2));
+        header.add(detailChart);
+
         JPanel topRow = new JPanel(new BorderLayout());
         topRow.setBorder(BorderFactory.createEmptyBorder(0, 0, 8, 0));
         topRow.add(backButton, BorderLayout.WEST);
@@ -156,6 +246,8 @@ public class BossLevelsPanel extends PluginPanel
         });
 
         showOverview();
+        markChanged(ALL_BOSSES, null);
+        log.debug("Built boss levels panel in {}us", (System.nanoTime() - start) / 1000);
     }
 
     /**
@@ -170,14 +262,131 @@ public class BossLevelsPanel extends PluginPanel
     {
         this.canPullHiscores = (s != null) ? s : () -> true;
     }
+
+    public void setIconCache(BossIconCache icons)
+    {
+        this.icons = icons;
+    }
+
     public void setOpenBossDetailConsumer(Consumer<BossDefinition> onBossClicked)
     {
         this.onBossClicked = (onBossClicked != null) ? onBossClicked : boss -> {};
     }
 
+    /**
+     * Where applyChanges reads boss XP and levels from.
+     */
+    public void setModel(ToLongFunction<BossDefinition> xpOf, Map<BossDefinition, Integer> levelMap)
+    {
+        this.xpOf = xpOf;
+        this.levelMap = levelMap;
+    }
+
+    /**
+     * Records bosses whose XP or level changed, and optionally one to open in the detail view. Safe from
+     * any thread. If the panel is showing, one EDT pass is queued unless one already is; a burst of calls
+     * is applied together by that pass. While hidden nothing is queued and the changes wait for the next
+     * onActivate.
+     */
+    public void markChanged(Set<BossDefinition> bosses, BossDefinition focus)
+    {
+        record(bosses, focus, false);
+    }
+
+    /**
+     * Marks every boss changed and returns to the overview, replacing any boss still waiting to be
+     * opened. Safe from any thread.
+     */
+    public void resetToOverview()
+    {
+        record(ALL_BOSSES, null, true);
+    }
+
+    private void record(Set<BossDefinition> bosses, BossDefinition focus, boolean toOverview)
+    {
+        synchronized (changedBosses)
+        {
+            changedBosses.addAll(bosses);
+            if (toOverview)
+            {
+                changedFocus = null;
+                changedToOverview = true;
+            }
+            else if (focus != null)
+            {
+                changedFocus = focus;
+                changedToOverview = false;
+            }
+
+            if (!active || passQueued)
+            {
+                return;
+            }
+            passQueued = true;
+        }
+        SwingUtilities.invokeLater(this::applyChanges);
+    }
+
+    /**
+     * Applies everything recorded since the last pass: the latest selection, then the changed cells; if
+     * the open detail view's boss changed it is refreshed. Does nothing while hidden. EDT.
+     */
+    private void applyChanges()
+    {
+        Set<BossDefinition> bosses;
+        BossDefinition focus;
+        boolean toOverview;
+        synchronized (changedBosses)
+        {
+            passQueued = false;
+            if (!active || !built || xpOf == null
+                    || (changedBosses.isEmpty() && changedFocus == null && !changedToOverview))
+            {
+                return;
+            }
+            bosses = EnumSet.copyOf(changedBosses);
+            focus = changedFocus;
+            toOverview = changedToOverview;
+            changedBosses.clear();
+            changedFocus = null;
+            changedToOverview = false;
+            passes++;
+        }
+
+        if (toOverview)
+        {
+            showOverview();
+        }
+
+        updateOverview(bosses);
+        if (focus == null && selectedBoss != null && bosses.contains(selectedBoss))
+        {
+            focus = selectedBoss;
+        }
+        if (focus != null)
+        {
+            onBossClicked.accept(focus);
+        }
+    }
+
+    /**
+     * EDT passes that applied changes so far.
+     */
+    long passes()
+    {
+        synchronized (changedBosses)
+        {
+            return passes;
+        }
+    }
+
     public void showOverview()
     {
         selectedBoss = null;
+        if (!built)
+        {
+            return;
+        }
         cardLayout.show(root, "overview");
         SwingUtilities.invokeLater(() -> gridScroll.getVerticalScrollBar().setValue(0));
     }
@@ -185,92 +394,135 @@ public class BossLevelsPanel extends PluginPanel
     public void showBoss(
             BossDefinition boss,
             long xp,
+            int kc,
             int level,
             int pct,
-            BufferedImage icon
+            int[] killsPerDay,
+            long xpToday,
+            long xpThisWeek
     )
     {
+        build();
         selectedBoss = boss;
 
         // Title: icon + name + level
-        if (icon != null)
+        Icon icon = icons == null ? null : icons.icon(BossIconCache.Size.DETAIL, boss);
+        detailTitle.setIcon(icon);
+        detailTitle.setIconTextGap(6);
+
+        detailTitle.setText("<html>" + boss.kcName + " — Lvl " + level + "</html>");
+        detailXp.setText(nf.format(xp) + " xp");
+        detailPct.setText(pct + "%");
+        detailTitle.setMaximumSize(new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE));
+
+        MilestoneIndex milestones = MilestoneIndex.of(boss);
+        int next = milestones.firstAbove(level);
+        if (next < milestones.size())
         {
-            Image scaled = icon.getScaledInstance(20, 20, Image.SCALE_SMOOTH);
-            detailTitle.setIcon(new ImageIcon(scaled));
-            detailTitle.setIconTextGap(6);
+            int kills = KillTable.of(boss).killsToMilestone(next, kc);
+            detailNext.setText("<html>" + nf.format(kills) + " kills to " + milestones.kind(next).label + " "
+                    + milestones.item(next) + " (Lvl " + milestones.level(next) + ")</html>");
         }
         else
         {
-            detailTitle.setIcon(null);
+            detailNext.setText("All milestones reached");
         }
 
-        detailTitle.setText("<html>" + boss.kcName + " — Lvl " + level + "</html>");
-        detailXp.setText(nf.format(xp) + " xp");
-        detailPct.setText(pct + "%");
-        detailTitle.setMaximumSize(new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        detailGains.setText("Today: +" + nf.format(xpToday) + " xp, week: +" + nf.format(xpThisWeek) + " xp");
 
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < boss.milestones.size(); i++)
+        int recent = 0;
+        for (int k : killsPerDay)
         {
-            sb.append(boss.milestones.get(i));
-            if (i < boss.milestones.size() - 1)
-            {
-                sb.append("\n\n");
-            }
+            recent += k;
         }
-        milestonesArea.setText(sb.toString().trim());
+        detailRecent.setText("Last " + killsPerDay.length + " days: " + nf.format(recent) + " kills");
+        detailChart.setValues(killsPerDay);
+
+        milestonesArea.setText(milestones.text());
 
         cardLayout.show(root, "detail");
     }
 
     /**
-     * Rebuilds the overview grid.
+     * Refreshes only the cells of the given bosses; the grid itself is never rebuilt. EDT, once built.
      */
-    public void rebuildOverview(
-            Map<BossDefinition, Long> xpMap,
-            Map<BossDefinition, Integer> levelMap,
-            Map<BossDefinition, BufferedImage> iconMap
-    )
+    private void updateOverview(Set<BossDefinition> bosses)
     {
-        rebuildOverview(xpMap, levelMap, iconMap, onBossClicked);
-    }
+        long start = System.nanoTime();
 
-    /**
-     * Rebuilds the overview grid.
-     */
-    public void rebuildOverview(
-            Map<BossDefinition, Long> xpMap,
-            Map<BossDefinition, Integer> levelMap,
-            Map<BossDefinition, BufferedImage> iconMap,
-            Consumer<BossDefinition> onBossClicked
-    )
-    {
-        this.onBossClicked = (onBossClicked != null) ? onBossClicked : boss -> {};
-
-        grid.removeAll();
-
-        for (BossDefinition boss : BossDefinition.values())
+        for (BossDefinition boss : bosses)
         {
+            int i = boss.ordinal();
             int level = levelMap.getOrDefault(boss, 1);
-            long xp = xpMap.getOrDefault(boss, 0L);
+            long xp = xpOf.applyAsLong(boss);
 
             // show "--" if XP is 0
             String levelText = (xp <= 0) ? "--" : String.valueOf(level);
+            if (!levelText.equals(cellLevels[i].getText()))
+            {
+                cellLevels[i].setText(levelText);
+            }
 
-            BufferedImage icon = iconMap.get(boss);
-            JLabel iconLabel = new JLabel();
-            if (icon != null)
+            Icon icon = icons == null ? null : icons.icon(BossIconCache.Size.GRID, boss);
+            if (icon != cellIcons[i].getIcon())
             {
-                Image scaled = icon.getScaledInstance(19, 19, Image.SCALE_SMOOTH);
-                iconLabel.setIcon(new ImageIcon(scaled));
+                cellIcons[i].setIcon(icon);
             }
+        }
 
-            JLabel levelLabel = new JLabel(levelText, SwingConstants.CENTER);
+        long nanos = System.nanoTime() - start;
+        overviewUpdates++;
+        overviewNanos += nanos;
+        overviewMaxNanos = Math.max(overviewMaxNanos, nanos);
+        log.debug("Overview update: {} cells in {}us (updates={}, avg={}us, max={}us)",
+                bosses.size(), nanos / 1000, overviewUpdates, overviewNanos / overviewUpdates / 1000, overviewMaxNanos / 1000);
+    }
+
+    /**
+     * Repaints a boss's icon that finished loading after its cell (or detail view) was shown.
+     */
+    public void refreshIcon(BossDefinition boss)
+    {
+        if (!built)
+        {
+            return;
+        }
+        cellIcons[boss.ordinal()].repaint();
+        if (boss == selectedBoss)
+        {
+            detailTitle.repaint();
+        }
+    }
+
+    /**
+     * Creates the 50 cells once. Clicks go through one shared listener that reads the cell's boss.
+     */
+    private void buildGrid()
+    {
+        MouseAdapter cellMouse = new MouseAdapter()
+        {
+            @Override
+            public void mouseClicked(MouseEvent e)
+            {
+                Object boss = ((JComponent) e.getComponent()).getClientProperty(BossDefinition.class);
+                if (boss != null)
+                {
+                    onBossClicked.accept((BossDefinition) boss);
+                }
+            }
+        };
+
+        for (BossDefinition boss : BOSSES)
+        {
+            JLabel iconLabel = new JLabel();
+            JLabel levelLabel = new JLabel("--", SwingConstants.CENTER);
             levelLabel.setForeground(Color.LIGHT_GRAY);
 
             JPanel cell = new JPanel();
             cell.setLayout(new BoxLayout(cell, BoxLayout.Y_AXIS));
             cell.setOpaque(false);
+            cell.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+            cell.putClientProperty(BossDefinition.class, boss);
 
             iconLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             levelLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -278,26 +530,61 @@ public class BossLevelsPanel extends PluginPanel
             cell.add(iconLabel);
             cell.add(Box.createVerticalStrut(6));
             cell.add(levelLabel);
+            cell.addMouseListener(cellMouse);
 
-            cell.addMouseListener(new MouseAdapter()
-            {
-                @Override
-                public void mouseClicked(MouseEvent e)
-                {
-                    BossLevelsPanel.this.onBossClicked.accept(boss);
-                }
+            cellIcons[boss.ordinal()] = iconLabel;
+            cellLevels[boss.ordinal()] = levelLabel;
+            grid.add(cell);
+        }
+    }
 
-                @Override
-                public void mouseEntered(MouseEvent e)
-                {
-                    cell.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-                }
-            });
+    /**
+     * One bar per day, oldest on the left, scaled to the busiest day.
+     */
+    private static final class DailyKillsChart extends JComponent
+    {
+        private static final Color BAR = new Color(255, 152, 31);
+        private static final Color EMPTY = new Color(60, 60, 60);
 
-            grid.add(cell);
+        private int[] values = new int[0];
+
+        DailyKillsChart()
+        {
+            setPreferredSize(new Dimension(PANEL_WIDTH, 40));
+            setMaximumSize(new Dimension(Integer.MAX_VALUE, 40));
         }
 
-        grid.revalidate();
-        grid.repaint();
+        void setValues(int[] values)
+        {
+            this.values = values;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g)
+        {
+            int n = values.length;
+            if (n == 0)
+            {
+                return;
+            }
+
+            int max = 1;
+            for (int v : values)
+            {
+                max = Math.max(max, v);
+            }
+
+            int w = getWidth();
+            int h = getHeight();
+            for (int i = 0; i < n; i++)
+            {
+                int x0 = i * w / n;
+                int x1 = (i + 1) * w / n - 1;
+                int bar = values[i] == 0 ? 1 : Math.max(2, values[i] * h / max);
+                g.setColor(values[i] == 0 ? EMPTY : BAR);
+                g.fillRect(x0, h - bar, Math.max(1, x1 - x0), bar);
+            }
+        }
     }
 }
@@ -3,25 +3,44 @@ package com.bosslevels;
 import com.google.inject.Provides;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.EnumMap;
-import java.util.Locale;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.swing.SwingUtilities;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.Player;
 import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.CommandExecuted;
 import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
 import net.runelite.api.gameval.SpotanimID;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.RuneScapeProfileChanged;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.hiscore.HiscoreClient;
 import net.runelite.client.hiscore.HiscoreEndpoint;
@@ -32,8 +51,8 @@ import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.ImageUtil;
-import net.runelite.client.util.Text;
 
+@Slf4j
 @PluginDescriptor(
 		name = "Boss Levels",
 		description = "Gives bosses fake XP and levels based on RuneLite KC",
@@ -45,9 +64,6 @@ public class BossLevelsPlugin extends Plugin
 
 	private static final String CONFIG_GROUP = "bosslevels";
 
-	// In-game command output: "Your Abyssal Sire kill count is: 22."
-	private static final Pattern KC_PATTERN =
-			Pattern.compile("^Your (.+) kill count is: (\\d+)\\.$");
 
 	/* ===================== INJECTED ===================== */
 
@@ -70,36 +86,66 @@ public class BossLevelsPlugin extends Plugin
 
 	/* ===================== STATE ===================== */
 
-	private final Map<BossDefinition, Long> bossXp = new EnumMap<>(BossDefinition.class);
+	private static final File BASE_DIR = new File(RuneLite.RUNELITE_DIR, "bosslevels");
+
+	// State of the logged-in RuneScape profile (store, journal, history); null until one has loaded.
+	// Profiles are opened on first login and kept, so switching accounts swaps this one reference.
+	private volatile BossProfile profile;
+	private final Map<String, BossProfile> profiles = new ConcurrentHashMap<>();
+	private String loadingProfile;
+
 	private final Map<BossDefinition, Integer> bossLevels = new EnumMap<>(BossDefinition.class);
-	private final Map<BossDefinition, Integer> lastKcSeen = new EnumMap<>(BossDefinition.class);
 
-	// Pre-scaled icons
-	private final Map<BossDefinition, BufferedImage> bossIcons16 = new EnumMap<>(BossDefinition.class);
+	// Asks several hiscore endpoints at once, one lookup per username in flight, results reused for
+	// hiscoreCacheMinutes; created in startUp once hiscoreClient is injected
+	private HiscoreCache hiscoreCache;
+
+	// Periodic, staleness-based hiscore syncs while logged in, with backoff on failure
+	private HiscoreSyncScheduler hiscoreSync;
+
+	// KC updates queued from chat, applied once per game tick (client thread only)
+	private final Map<BossDefinition, Integer> pendingKc = new EnumMap<>(BossDefinition.class);
+
+	// Bosses whose XP changed since the last drain and still need persisting + repainting
+	private final Set<BossDefinition> dirtyBosses = EnumSet.noneOf(BossDefinition.class);
+
+	// Every icon size the panel and overlay draw, scaled once off the EDT
+	private final BossIconCache iconCache = new BossIconCache();
 
 	private int spotAnimKey = 1;
 
+	// Reused for every game message; only touched on the client thread
+	private final KcMessageParser kcParser = new KcMessageParser();
+
 	/* ===================== PANEL UI ===================== */
 
+	private static final int CHART_DAYS = 14;
+
 	private BossLevelsPanel panel;
 	private NavigationButton navButton;
 
 	private void openBossDetail(BossDefinition boss)
 	{
-		if (panel == null)
+		final BossProfile p = profile;
+		if (panel == null || p == null)
 		{
 			return;
 		}
 
-		long xp = bossXp.getOrDefault(boss, 0L);
+		long xp = cappedXp(p.store.get(boss));
+		int kc = kcOf(p, boss);
 		int level = bossLevels.getOrDefault(boss, 1);
+		int maxLevel = maxLevel();
+
+		int cur = XpCurve.xpForLevel(level);
+		int nxt = XpCurve.xpForNextLevel(level, maxLevel);
+		int pct = (level >= maxLevel) ? 100 : (int) Math.floor(100.0 * (xp - cur) / Math.max(1, (nxt - cur)));
 
-		int cur = xpForLevel(level);
-		int nxt = xpForNextLevel(level);
-		int pct = (level >= 99) ? 100 : (int) Math.floor(100.0 * (xp - cur) / Math.max(1, (nxt - cur)));
+		long now = System.currentTimeMillis() / 1000;
+		XpRollups rollups = p.store.rollups();
+		int[] killsPerDay = rollups.killsPerDay(boss, now, CHART_DAYS);
 
-		BufferedImage icon = bossIcons16.get(boss);
-		panel.showBoss(boss, xp, level, pct, icon);
+		panel.showBoss(boss, xp, kc, level, pct, killsPerDay, rollups.xpToday(boss, now), rollups.xpThisWeek(boss, now));
 	}
 
 	/* ===================== XP DROP OVERLAY ===================== */
@@ -114,29 +160,46 @@ public class BossLevelsPlugin extends Plugin
 	protected void startUp()
 	{
 		pluginIcon = ImageUtil.loadImageResource(BossLevelsPlugin.class, "icons/plugin_icon.png");
-
-		// Load XP + level state
-		for (BossDefinition boss : BossDefinition.values())
-		{
-			long xp = loadLong(xpKey(boss), 0L);
-			bossXp.put(boss, xp);
-			bossLevels.put(boss, levelForXp(xp));
-			lastKcSeen.put(boss, -1);
-		}
-
-		// Load icons
-		bossIcons16.clear();
-		for (BossDefinition boss : BossDefinition.values())
+		hiscoreCache = new HiscoreCache(
+				new HiscoreProber(hiscoreClient::lookupAsync, HiscoreProber.MAX_IN_FLIGHT),
+				System::currentTimeMillis,
+				TimeUnit.MINUTES.toMillis(config.hiscoreCacheMinutes()));
+		hiscoreSync = new HiscoreSyncScheduler(
+				(task, delayMillis) ->
+				{
+					ScheduledFuture<?> f = executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+					return () -> f.cancel(false);
+				},
+				System::currentTimeMillis,
+				() -> ThreadLocalRandom.current().nextDouble(),
+				this::scheduledHiscoreSync,
+				TimeUnit.MINUTES.toMillis(config.hiscoreSyncMinutes()));
+
+		// XP + level state is per profile and loads on login; if we're already logged in, load it now
+		clientThread.invoke(() ->
 		{
-			BufferedImage img = ImageUtil.loadImageResource(BossLevelsPlugin.class, "icons/" + boss.iconFile);
-			if (img != null)
+			if (client.getGameState() == GameState.LOGGED_IN)
 			{
-				bossIcons16.put(boss, ImageUtil.resizeImage(img, 16, 16));
+				activateProfile();
 			}
-		}
+		});
 
-		// Panel
+		// Icons load and scale in parallel off the start path; placeholders show until each one arrives
+		iconCache.loadAsync(
+				boss -> ImageUtil.loadImageResource(BossLevelsPlugin.class, "icons/" + boss.iconFile),
+				ForkJoinPool.commonPool(),
+				boss -> SwingUtilities.invokeLater(() ->
+				{
+					if (panel != null)
+					{
+						panel.refreshIcon(boss);
+					}
+				}));
+
+		// Panel: only a shell until the tab is first opened; its cells are built then
 		panel = new BossLevelsPanel();
+		panel.setIconCache(iconCache);
+		panel.setModel(this::xpOf, bossLevels);
 		panel.setOpenBossDetailConsumer(this::openBossDetail);
 
 		// Button: pull hiscores
@@ -146,15 +209,10 @@ public class BossLevelsPlugin extends Plugin
 					client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Boss Levels: Pulling hiscores…", null)
 			);
 
-			refreshAllBossKcFromHiscores(true);
+			refreshFromHiscores(HiscoreRefresh.BUTTON);
 		});
 
-		panel.setCanPullHiscores(() -> client.getGameState() == GameState.LOGGED_IN);
-		if (!hiscoresPulledThisLogin)
-		{
-			hiscoresPulledThisLogin = true;
-			refreshAllBossKcFromHiscores(false); // silent auto pull
-		}
+		panel.setCanPullHiscores(() -> client.getGameState() == GameState.LOGGED_IN && profile != null);
 
 		navButton = NavigationButton.builder()
 				.tooltip("Boss Levels")
@@ -163,20 +221,33 @@ public class BossLevelsPlugin extends Plugin
 				.panel(panel)
 				.build();
 
-		SwingUtilities.invokeLater(() ->
-		{
-			clientToolbar.addNavigation(navButton);
-			panel.rebuildOverview(bossXp, bossLevels, bossIcons16);
-		});
+		SwingUtilities.invokeLater(() -> clientToolbar.addNavigation(navButton));
 
 		// XP overlay
-		xpDropOverlay = new BossLevelsOverlay(client, this::colorForBoss, config, bossIcons16);
+		xpDropOverlay = new BossLevelsOverlay(client, this::colorForBoss, config, iconCache);
 		overlayManager.add(xpDropOverlay);
 	}
 
 	@Override
 	protected void shutDown()
 	{
+		hiscoreSync.stop();
+
+		// Apply anything still queued and write every open profile out; no drops/chat/fireworks on the way out
+		clientThread.invoke(() ->
+		{
+			drainKcUpdates(false);
+			for (BossProfile open : profiles.values())
+			{
+				executor.execute(open::close);
+			}
+			profiles.clear();
+			profile = null;
+			loadingProfile = null;
+			pendingKc.clear();
+			bossLevels.clear();
+		});
+
 		if (navButton != null)
 		{
 			SwingUtilities.invokeLater(() -> clientToolbar.removeNavigation(navButton));
@@ -190,7 +261,7 @@ public class BossLevelsPlugin extends Plugin
 			xpDropOverlay = null;
 		}
 
-		bossIcons16.clear();
+		iconCache.clear();
 	}
 
 	/* ===================== AUTO HISCORES REFRESH ===================== */
@@ -200,390 +271,495 @@ public class BossLevelsPlugin extends Plugin
 	{
 		if (e.getGameState() == GameState.LOGGED_IN)
 		{
-			refreshAllBossKcFromHiscores(false);
-			hiscoresPulledThisLogin = false;
+			activateProfile();
+		}
+		else if (e.getGameState() == GameState.LOGIN_SCREEN)
+		{
+			hiscoreSync.stop();
+
+			// Logged out: apply and write back anything still pending
+			final BossProfile p = profile;
+			if (p != null)
+			{
+				drainKcUpdates(false);
+				executor.execute(p::flush);
+			}
 		}
 	}
 
-	private void refreshAllBossKcFromHiscores(boolean showChat)
+	@Subscribe
+	@SuppressWarnings("unused")
+	public void onRuneScapeProfileChanged(RuneScapeProfileChanged e)
 	{
-		final Player p = client.getLocalPlayer();
-		if (p == null || p.getName() == null)
+		// The profile key can arrive after LOGGED_IN on the first login of a session
+		if (client.getGameState() == GameState.LOGGED_IN)
 		{
-			clientThread.invoke(() ->
-					client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Boss Levels: No player name available yet.", null)
-			);
-			return;
+			activateProfile();
 		}
+	}
 
-		final String username = p.getName().trim();
+	/* ===================== PROFILES ===================== */
 
-		executor.execute(() ->
+	/**
+	 * Makes the logged-in RuneScape profile current and pulls its hiscores. An already opened profile is
+	 * swapped in directly; a new one is loaded on the executor and swapped in when ready. Client thread.
+	 */
+	private void activateProfile()
+	{
+		final String key = configManager.getRSProfileKey();
+		if (key == null)
 		{
-			HiscoreResult result = lookupHiscoresSafe(username);
-			if (result == null)
-			{
-				clientThread.invoke(() ->
-						client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Boss Levels: Hiscores lookup failed for " + username, null)
-				);
-				return;
-			}
+			return;
+		}
 
-			clientThread.invoke(() ->
-			{
-				int updated = 0;
-				int mapped = 0;
+		BossProfile current = profile;
+		if (current != null && current.key.equals(key))
+		{
+			// Same account (world hop, reconnect): just refresh
+			refreshFromHiscores(HiscoreRefresh.LOGIN);
+			return;
+		}
 
-				for (BossDefinition def : BossDefinition.values())
-				{
-					Integer kc = tryGetBossKillCount(result, def);
-					if (kc == null)
-					{
-						continue;
-					}
+		if (current != null)
+		{
+			// Different account: detach the old one so nothing from this login is applied to it
+			profile = null;
+			executor.execute(current::flush);
+		}
 
-					mapped++;
+		BossProfile open = profiles.get(key);
+		if (open != null)
+		{
+			installProfile(open);
+			return;
+		}
 
-					if (kc >= 0)
-					{
-						// Silent absolute set so pulling doesn't spam drops/fireworks/chat line
-						if (setKcAbsolute(def, kc))
-						{
-							updated++;
-						}
-					}
-				}
+		if (key.equals(loadingProfile))
+		{
+			return;
+		}
+		loadingProfile = key;
 
-				if (panel != null)
+		final boolean packed = config.compactStorage();
+		executor.execute(() ->
+		{
+			BossProfile loaded = BossProfile.open(configManager, CONFIG_GROUP, key, packed, BASE_DIR, executor);
+			clientThread.invoke(() ->
+			{
+				if (!key.equals(loadingProfile))
 				{
-					SwingUtilities.invokeLater(() -> panel.rebuildOverview(bossXp, bossLevels, bossIcons16));
+					// Shut down (or superseded) while loading
+					executor.execute(loaded::close);
+					return;
 				}
-
-				if (showChat)
+				loadingProfile = null;
+				profiles.put(key, loaded);
+				if (key.equals(configManager.getRSProfileKey()))
 				{
-					client.addChatMessage(
-							ChatMessageType.GAMEMESSAGE,
-							"",
-							"Boss Levels: Hiscores pulled. Mapped=" + mapped + ", Updated=" + updated,
-							null
-					);
+					installProfile(loaded);
 				}
 			});
 		});
-
 	}
 
-	private HiscoreResult lookupHiscoresSafe(String username)
+	/**
+	 * Swaps in an opened profile; KC queued while none was current is applied to it on the next tick.
+	 */
+	private void installProfile(BossProfile next)
 	{
-		// Try every endpoint; works across normal/iron/group/seasonal depending on RL version.
-		for (HiscoreEndpoint ep : HiscoreEndpoint.values())
-		{
-			HiscoreResult r = tryLookup(username, ep);
-			if (r != null)
-			{
-				return r;
-			}
-		}
-		return null;
-	}
+		profile = next;
 
-	private HiscoreResult tryLookup(String username, HiscoreEndpoint endpoint)
-	{
-		try
+		int maxLevel = maxLevel();
+		for (BossDefinition boss : BossDefinition.values())
 		{
-			return hiscoreClient.lookup(username, endpoint);
+			bossLevels.put(boss, XpCurve.levelForXp(next.store.get(boss), maxLevel));
 		}
-		catch (Exception ignored)
+
+		if (panel != null)
 		{
-			return null;
+			panel.resetToOverview();
 		}
+
+		refreshFromHiscores(HiscoreRefresh.LOGIN);
 	}
 
 	/**
-	 * Absolute set of KC -> XP/Level, persisted, and lastKcSeen updated.
-	 * Returns true if state changed.
+	 * XP of the boss on the current profile, 0 if none is loaded.
 	 */
-	private boolean setKcAbsolute(BossDefinition boss, int kc)
+	private long xpOf(BossDefinition boss)
 	{
-		if (kc < 0)
-		{
-			return false;
-		}
-
-		Integer prev = lastKcSeen.getOrDefault(boss, -1);
-		if (prev == kc)
-		{
-			return false;
-		}
-
-		lastKcSeen.put(boss, kc);
-
-		long newXp = (long) kc * boss.xpPerKill;
-		int newLevel = levelForXp(newXp);
+		final BossProfile p = profile;
+		return p == null ? 0 : p.store.get(boss);
+	}
 
-		Long oldXp = bossXp.getOrDefault(boss, 0L);
-		Integer oldLevel = bossLevels.getOrDefault(boss, 1);
+	/**
+	 * The boss's KC: the last one seen, else worked back from the stored (never capped) XP.
+	 */
+	private static int kcOf(BossProfile p, BossDefinition boss)
+	{
+		int kc = p.store.getLastKc(boss);
+		return kc >= 0 ? kc : (int) (p.store.get(boss) / Math.max(1, boss.xpPerKill));
+	}
 
-		bossXp.put(boss, newXp);
-		bossLevels.put(boss, newLevel);
-		saveLong(xpKey(boss), newXp);
+	private enum HiscoreRefresh
+	{
+		// Logging in or switching accounts: failures are reported in chat
+		LOGIN,
+		// The panel button: always looks up again, reports the result in chat
+		BUTTON,
+		// HiscoreSyncScheduler: silent, it retries on its own
+		SCHEDULED
+	}
 
-		return oldXp != newXp || oldLevel != newLevel;
+	/**
+	 * Refreshes from the hiscores, reporting the outcome to the sync scheduler so a failure is retried
+	 * with backoff and a success pushes the next periodic sync out. Client thread.
+	 */
+	private void refreshFromHiscores(HiscoreRefresh reason)
+	{
+		refreshAllBossKcFromHiscores(reason).thenAccept(hiscoreSync::recordResult);
+		if (reason == HiscoreRefresh.LOGIN && config.hiscoreSyncMinutes() > 0)
+		{
+			hiscoreSync.start();
+		}
 	}
 
-	/* ===================== HISCORES BOSS KC LOOKUP ===================== */
-	private boolean hiscoresPulledThisLogin = false;
+	/**
+	 * The scheduler's sync: a silent refresh started on the client thread.
+	 */
+	private CompletableFuture<Boolean> scheduledHiscoreSync()
+	{
+		CompletableFuture<Boolean> done = new CompletableFuture<>();
+		clientThread.invoke(() -> refreshAllBossKcFromHiscores(HiscoreRefresh.SCHEDULED)
+				.whenComplete((ok, e) -> done.complete(e == null ? ok : Boolean.FALSE)));
+		return done;
+	}
 
-	private Integer tryGetBossKillCount(HiscoreResult result, BossDefinition def)
+	/**
+	 * Completes with whether the lookup succeeded, or null if it didn't run (no profile or player name
+	 * yet, or the account changed before the result arrived).
+	 */
+	private CompletableFuture<Boolean> refreshAllBossKcFromHiscores(HiscoreRefresh reason)
 	{
-		if (result == null || def == null)
+		// Results are only applied to the profile that asked for them
+		final BossProfile target = profile;
+		if (target == null)
 		{
-			return null;
+			return CompletableFuture.completedFuture(null);
 		}
 
-		// Primary: match by enum constant name (your BossDefinition format matches this best)
-		String target = def.name();
-
-		// 1) Try any public methods like getBossKc/getBossScore that take an enum parameter
-		Integer viaMethods = tryExtractViaBossMethods(result, target);
-		if (viaMethods != null)
+		final boolean showChat = reason == HiscoreRefresh.BUTTON;
+		final Player p = client.getLocalPlayer();
+		if (p == null || p.getName() == null)
 		{
-			return viaMethods;
+			if (reason != HiscoreRefresh.SCHEDULED)
+			{
+				clientThread.invoke(() ->
+						client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Boss Levels: No player name available yet.", null)
+				);
+			}
+			return CompletableFuture.completedFuture(null);
 		}
 
-		// 2) Generic fallback: scan any Map fields in HiscoreResult and match enum keys by name()
-		return tryExtractFromMapFields(result, target);
-	}
+		final String username = p.getName().trim();
 
-	private Integer tryExtractViaBossMethods(HiscoreResult result, String targetEnumName)
-	{
-		try
+		// The endpoint this account was found on last time is asked first; otherwise they race
+		// A pull from the panel button always looks up again; otherwise a recent result is reused
+		final HiscoreEndpoint known = target.store.getHiscoreEndpoint();
+		return hiscoreCache.lookup(username, known, showChat).thenApply(hit ->
 		{
-			for (Method m : result.getClass().getMethods())
+			if (hit == null)
 			{
-				String n = m.getName();
-				if (!n.equals("getBossKc") && !n.equals("getBossScore"))
+				if (reason != HiscoreRefresh.SCHEDULED)
 				{
-					continue;
+					clientThread.invoke(() ->
+							client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Boss Levels: Hiscores lookup failed for " + username, null)
+					);
 				}
+				return false;
+			}
 
-				Class<?>[] params = m.getParameterTypes();
-				if (params.length != 1 || !params[0].isEnum())
-				{
-					continue;
-				}
+			if (hit.endpoint != known)
+			{
+				target.store.setHiscoreEndpoint(hit.endpoint);
+			}
 
-				Object bossEnum = findEnumConstantByName(params[0], targetEnumName);
-				if (bossEnum == null)
-				{
-					continue;
-				}
+			// Read every KC and diff it against the profile here, off the client thread; it only gets the
+			// bosses that moved, and nothing at all when none did
+			final int[] kcs = extractBossKc(hit.result);
+			final int[] changed = target.store.changedKc(kcs);
+			int mapped = 0;
+			for (int kc : kcs)
+			{
+				mapped += kc != HiscoreKcExtractor.UNMAPPED ? 1 : 0;
+			}
+			final int mappedCount = mapped;
 
-				Object out = m.invoke(result, bossEnum);
+			if (changed.length == 0 && !showChat)
+			{
+				return true;
+			}
 
-				// getBossKc -> Integer
-				if (out instanceof Integer)
+			clientThread.invoke(() ->
+			{
+				if (profile != target)
 				{
-					return (Integer) out;
+					return;
 				}
 
-				// getBossScore -> some object; extract int
-				Integer kc = extractIntFromValue(out);
-				if (kc != null)
+				final BossDefinition[] bosses = BossDefinition.values();
+				int updated = 0;
+				for (int i : changed)
 				{
-					return kc;
+					// Silent absolute set so pulling doesn't spam drops/fireworks/chat line
+					if (setKcAbsolute(target, bosses[i], kcs[i]))
+					{
+						updated++;
+					}
 				}
-			}
-		}
-		catch (Exception ignored)
-		{
-		}
 
-		return null;
+				if (showChat)
+				{
+					client.addChatMessage(
+							ChatMessageType.GAMEMESSAGE,
+							"",
+							"Boss Levels: Hiscores pulled. Mapped=" + mappedCount + ", Updated=" + updated,
+							null
+					);
+				}
+			});
+			return true;
+		});
 	}
 
-	private Integer tryExtractFromMapFields(HiscoreResult result, String targetEnumName)
+	/**
+	 * Absolute set of KC -> XP/Level and last seen KC updated; persisted by the next store flush.
+	 * Only moves forward from the last seen KC. Returns true if state changed.
+	 */
+	private boolean setKcAbsolute(BossProfile p, BossDefinition boss, int kc)
 	{
-		try
+		if (kc < 0)
 		{
-			for (Field f : result.getClass().getDeclaredFields())
-			{
-				if (!Map.class.isAssignableFrom(f.getType()))
-				{
-					continue;
-				}
+			return false;
+		}
 
-				f.setAccessible(true);
-				Object mapObj = f.get(result);
-				if (!(mapObj instanceof Map))
-				{
-					continue;
-				}
+		// Hiscores lag chat: a reading behind the last seen KC would roll it back and count those kills again
+		int prev = p.store.getLastKc(boss);
+		if (prev >= 0 && kc <= prev)
+		{
+			return false;
+		}
 
-				Map<?, ?> map = (Map<?, ?>) mapObj;
+		p.store.setLastKc(boss, kc);
+		long now = System.currentTimeMillis();
+		p.journal.append(boss, kc, KcJournal.Source.HISCORES, now);
+		p.history.record(boss, now / 1000, kc);
 
-				for (Map.Entry<?, ?> e : map.entrySet())
-				{
-					Object key = e.getKey();
-					if (!(key instanceof Enum))
-					{
-						continue;
-					}
+		long newXp = (long) kc * boss.xpPerKill;
+		int newLevel = XpCurve.levelForXp(newXp, maxLevel());
 
-					String keyName = ((Enum<?>) key).name();
-					if (!keyName.equalsIgnoreCase(targetEnumName))
-					{
-						// extra tolerance: spaces/underscores differences
-						String kn = keyName.replace('_', ' ').toUpperCase(Locale.ROOT);
-						String tn = targetEnumName.replace('_', ' ').toUpperCase(Locale.ROOT);
-						if (!kn.equals(tn))
-						{
-							continue;
-						}
-					}
+		long oldXp = p.store.get(boss);
+		Integer oldLevel = bossLevels.getOrDefault(boss, 1);
 
-					Integer kc = extractIntFromValue(e.getValue());
-					if (kc != null)
-					{
-						return kc;
-					}
-				}
-			}
+		// Kills since the last known KC count towards today/this week; a first ever reading is only a baseline
+		int oldKc = prev >= 0 ? prev : (int) (oldXp / Math.max(1, boss.xpPerKill));
+		if (kc > oldKc && (prev >= 0 || oldXp > 0))
+		{
+			p.store.addGain(boss, now / 1000, cappedXp(newXp) - cappedXp((long) oldKc * boss.xpPerKill), kc - oldKc);
 		}
-		catch (Exception ignored)
+
+		p.store.set(boss, newXp);
+		bossLevels.put(boss, newLevel);
+
+		boolean changed = oldXp != newXp || oldLevel != newLevel;
+		if (changed)
 		{
+			dirtyBosses.add(boss);
 		}
+		return changed;
+	}
+
+	/* ===================== HISCORES BOSS KC LOOKUP ===================== */
 
-		return null;
+	/**
+	 * Every boss's KC from the result, by ordinal (see HiscoreKcExtractor); the accessors are looked up
+	 * once per HiscoreResult class. Any thread.
+	 */
+	private static int[] extractBossKc(HiscoreResult result)
+	{
+		return HiscoreKcExtractor.of(result.getClass()).extract(result);
 	}
 
-	private Object findEnumConstantByName(Class<?> enumClass, String name)
+	/* ===================== CHAT HANDLER ===================== */
+
+	@Subscribe
+	@SuppressWarnings("unused")
+	public void onChatMessage(ChatMessage event)
 	{
-		try
+		if (event.getType() != ChatMessageType.GAMEMESSAGE)
 		{
-			Object[] constants = enumClass.getEnumConstants();
-			if (constants == null)
-			{
-				return null;
-			}
+			return;
+		}
 
-			for (Object c : constants)
-			{
-				if (c instanceof Enum && ((Enum<?>) c).name().equalsIgnoreCase(name))
-				{
-					return c;
-				}
-			}
+		// In-game ::kc format: "Your X kill count is: N." (parsed straight from the tagged message)
+		final String msg = event.getMessage();
+		if (!kcParser.parse(msg))
+		{
+			return;
 		}
-		catch (Exception ignored)
+
+		BossDefinition boss = BossNameIndex.find(msg, kcParser.nameStart(), kcParser.nameEnd());
+		if (boss == null)
 		{
+			return;
 		}
 
-		return null;
+		// Applied on the next game tick together with anything else that arrives this tick
+		pendingKc.put(boss, kcParser.count());
+	}
+
+	/* ===================== TICK DRAIN ===================== */
+
+	@Subscribe
+	@SuppressWarnings("unused")
+	public void onGameTick(GameTick tick)
+	{
+		drainKcUpdates(true);
 	}
 
 	/**
-	 * Extracts an int KC from various RL hiscore value types.
-	 * Handles Integer directly and common getter names used by different RL versions.
+	 * Applies every KC update queued since the last tick, then does one panel repaint
+	 * and one combined XP drop for the whole batch. Without notify the drop, chat lines and
+	 * fireworks are left out; the repaint isn't.
 	 */
-	private Integer extractIntFromValue(Object value)
+	private void drainKcUpdates(boolean notify)
 	{
-		if (value == null)
+		// With no profile loaded (mid account switch) updates stay queued for the next one
+		final BossProfile p = profile;
+		if (p == null || (pendingKc.isEmpty() && dirtyBosses.isEmpty()))
 		{
-			return null;
+			return;
 		}
 
-		if (value instanceof Integer)
+		BossDefinition lastGained = null;
+		BossDefinition dropBoss = null;
+		long dropBossXp = 0;
+		long dropXp = 0;
+		int fireworksLevel = 0;
+
+		for (Map.Entry<BossDefinition, Integer> e : pendingKc.entrySet())
 		{
-			return (Integer) value;
-		}
+			BossDefinition boss = e.getKey();
+			int oldLevel = bossLevels.getOrDefault(boss, 1);
 
-		// Common RL hiscore score containers
-		String[] methodNames = {"getKillCount", "getKc", "getLevel", "getScore", "getValue"};
+			long gainedXp = applyKcUpdate(p, boss, e.getValue(), notify);
+			if (gainedXp < 0)
+			{
+				continue;
+			}
 
-		for (String mn : methodNames)
-		{
-			try
+			lastGained = boss;
+			dropXp += gainedXp;
+			if (gainedXp > dropBossXp)
 			{
-				Method m = value.getClass().getMethod(mn);
-				Object out = m.invoke(value);
-				if (out instanceof Integer)
-				{
-					return (Integer) out;
-				}
+				dropBoss = boss;
+				dropBossXp = gainedXp;
 			}
-			catch (Exception ignored)
+
+			int newLevel = bossLevels.getOrDefault(boss, 1);
+			if (newLevel > oldLevel)
 			{
+				fireworksLevel = Math.max(fireworksLevel, newLevel);
 			}
 		}
+		pendingKc.clear();
 
-		return null;
-	}
-	/* ===================== CHAT HANDLER ===================== */
+		// A cached hiscore lookup is behind the chat now; the next refresh looks the player up again
+		if (lastGained != null)
+		{
+			final Player player = client.getLocalPlayer();
+			if (player != null && player.getName() != null)
+			{
+				hiscoreCache.invalidate(player.getName().trim());
+			}
+		}
 
-	@Subscribe
-	@SuppressWarnings("unused")
-	public void onChatMessage(ChatMessage event)
-	{
-		if (event.getType() != ChatMessageType.GAMEMESSAGE)
+		// Journal records reach disk off the client thread, at most once per tick
+		if (p.journal.hasPending())
+		{
+			executor.execute(p.journal::flush);
+		}
+		if (p.history.hasPending())
+		{
+			executor.execute(p.history::flush);
+		}
+
+		if (dirtyBosses.isEmpty())
 		{
 			return;
 		}
 
-		final String msg = Text.removeTags(event.getMessage()).trim();
+		// Persistence is write-behind (BossXpStore); the dirty set only drives the repaint
+		final Set<BossDefinition> changed = EnumSet.copyOf(dirtyBosses);
+		dirtyBosses.clear();
 
-		// In-game ::kc format: "Your X kill count is: N."
-		Matcher m = KC_PATTERN.matcher(msg);
-		if (!m.matches())
+		// One combined screen XP drop, shown with the boss that gained the most
+		if (notify && config.enableXpDrops() && xpDropOverlay != null && dropBoss != null)
 		{
-			return;
+			xpDropOverlay.pushDrop(dropBoss, dropXp);
 		}
 
-		BossDefinition boss = findBossByKcName(m.group(1));
-		if (boss == null)
+		// Changed cells, auto-opening the boss that changed from chat; the panel coalesces these into one
+		// EDT pass, or just records them while hidden. Quiet drains (logout) still repaint, without the jump
+		if (panel != null)
 		{
-			return;
+			panel.markChanged(changed, notify ? lastGained : null);
 		}
 
-		applyKcUpdate(boss, Integer.parseInt(m.group(2)));
+		// Optional fireworks, once for the highest level reached
+		if (notify && config.enableFireworks() && fireworksLevel > 0)
+		{
+			playLevelUpFireworks(fireworksLevel);
+		}
 	}
 
-	private void applyKcUpdate(BossDefinition boss, int kc)
+	/**
+	 * Applies one KC reading: updates XP/level state, marks the boss dirty and adds the per-boss
+	 * chat lines. Returns the XP gained, or -1 if the reading didn't add any kills.
+	 */
+	private long applyKcUpdate(BossProfile p, BossDefinition boss, int kc, boolean notify)
 	{
-		int previousKc = lastKcSeen.getOrDefault(boss, -1);
+		int previousKc = p.store.getLastKc(boss);
 		int gainedKills = (previousKc == -1) ? 1 : (kc - previousKc);
-		lastKcSeen.put(boss, kc);
+		p.store.setLastKc(boss, kc);
+		long now = System.currentTimeMillis();
+		if (kc != previousKc)
+		{
+			p.journal.append(boss, kc, KcJournal.Source.CHAT, now);
+			p.history.record(boss, now / 1000, kc);
+		}
 
 		if (gainedKills <= 0)
 		{
-			return;
+			return -1;
 		}
 
 		int oldLevel = bossLevels.getOrDefault(boss, 1);
 
 		long newXp = (long) kc * boss.xpPerKill;
-		int newLevel = levelForXp(newXp);
-
-		bossXp.put(boss, newXp);
-		bossLevels.put(boss, newLevel);
-		saveLong(xpKey(boss), newXp);
+		int newLevel = XpCurve.levelForXp(newXp, maxLevel());
 
-		long gainedXp = (long) gainedKills * boss.xpPerKill;
+		// Rollups count the same capped gain the chat line shows, so a capped boss stops adding to them
+		long gainedXp = cappedXp(newXp) - cappedXp(newXp - (long) gainedKills * boss.xpPerKill);
 
-		// Screen XP drop
-		if (config.enableXpDrops() && xpDropOverlay != null)
-		{
-			xpDropOverlay.pushDrop(boss, gainedXp);
-		}
+		p.store.set(boss, newXp);
+		p.store.addGain(boss, now / 1000, gainedXp, gainedKills);
+		bossLevels.put(boss, newLevel);
+		dirtyBosses.add(boss);
 
-		// Update panel and auto-open the boss that changed
-		if (panel != null)
+		if (!notify)
 		{
-			SwingUtilities.invokeLater(() ->
-			{
-				panel.rebuildOverview(bossXp, bossLevels, bossIcons16);
-				openBossDetail(boss);
-			});
+			return gainedXp;
 		}
 
 		// Optional chat line
@@ -593,113 +769,260 @@ public class BossLevelsPlugin extends Plugin
 					ChatMessageType.GAMEMESSAGE,
 					"",
 					"Boss Levels: " + boss.kcName + " +" + gainedXp +
-							" xp (Total: " + newXp +
+							" xp (Total: " + cappedXp(newXp) +
 							", Level: " + newLevel + ")",
 					null
 			);
 		}
 
-		// Optional fireworks
-		if (config.enableFireworks() && newLevel > oldLevel)
+		// Optional milestone lines
+		if (config.enableMilestoneMessages() && newLevel > oldLevel)
 		{
-			playLevelUpFireworks(newLevel);
+			announceMilestones(boss, oldLevel, newLevel);
 		}
-	}
 
-	/* ===================== FIREWORKS ===================== */
+		return gainedXp;
+	}
 
-	private void playLevelUpFireworks(int level)
+	private void announceMilestones(BossDefinition boss, int oldLevel, int newLevel)
 	{
-		final int anim = (level >= 99) ? SpotanimID.LEVELUP_99_ANIM : SpotanimID.LEVELUP_ANIM;
-
-		clientThread.invoke(() ->
+		MilestoneIndex milestones = MilestoneIndex.of(boss);
+		int end = milestones.firstAbove(newLevel);
+		for (int i = milestones.firstAbove(oldLevel); i < end; i++)
 		{
-			Player p = client.getLocalPlayer();
-			if (p != null)
-			{
-				p.createSpotAnim(spotAnimKey++, anim, 0, 0);
-			}
-		});
+			client.addChatMessage(
+					ChatMessageType.GAMEMESSAGE,
+					"",
+					"Boss Levels: " + boss.kcName + " milestone - " + milestones.kind(i).label + " " + milestones.item(i),
+					null
+			);
+		}
 	}
 
-	/* ===================== XP CURVE ===================== */
+	/* ===================== CHAT COMMAND ===================== */
 
-	private static int levelForXp(long xp)
+	// "::bl vorkath" -> "Vorkath lvl 74 (1,234 kc): 58 kills to level 75, 42 kills to on-rate Draconic visage"
+	private static final String NEXT_COMMAND = "bl";
+
+	// "::blexport [boss]" -> every KC reading as CSV under .runelite/bosslevels/exports
+	private static final String EXPORT_COMMAND = "blexport";
+
+	private static final DateTimeFormatter EXPORT_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	@Subscribe
+	@SuppressWarnings("unused")
+	public void onCommandExecuted(CommandExecuted event)
 	{
-		for (int level = 1; level < 99; level++)
+		if (EXPORT_COMMAND.equalsIgnoreCase(event.getCommand()))
 		{
-			if (xp < xpForLevel(level + 1))
+			BossDefinition only = null;
+			if (event.getArguments().length > 0)
 			{
-				return level;
+				only = BossNameIndex.find(String.join(" ", event.getArguments()));
+				if (only == null)
+				{
+					client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Boss Levels: Unknown boss. Usage: ::" + EXPORT_COMMAND + " [boss]", null);
+					return;
+				}
 			}
+			exportHistory(only);
+			return;
+		}
+
+		if (!NEXT_COMMAND.equalsIgnoreCase(event.getCommand()))
+		{
+			return;
+		}
+
+		BossDefinition boss = BossNameIndex.find(String.join(" ", event.getArguments()));
+		if (boss == null)
+		{
+			client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Boss Levels: Unknown boss. Usage: ::" + NEXT_COMMAND + " <boss>", null);
+			return;
+		}
+
+		final BossProfile p = profile;
+		int kc = p == null ? 0 : kcOf(p, boss);
+		int level = bossLevels.getOrDefault(boss, 1);
+		KillTable kills = KillTable.of(boss);
+
+		StringBuilder sb = new StringBuilder("Boss Levels: ")
+				.append(boss.kcName).append(" lvl ").append(level)
+				.append(" (").append(kc).append(" kc)");
+
+		if (level < maxLevel())
+		{
+			sb.append(": ").append(kills.killsToLevel(level + 1, kc)).append(" kills to level ").append(level + 1);
+		}
+
+		MilestoneIndex milestones = MilestoneIndex.of(boss);
+		int next = milestones.firstAbove(level);
+		if (next < milestones.size())
+		{
+			sb.append(level < maxLevel() ? ", " : ": ")
+					.append(kills.killsToMilestone(next, kc)).append(" kills to ")
+					.append(milestones.kind(next).label).append(' ').append(milestones.item(next));
 		}
-		return 99;
+
+		client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", sb.toString(), null);
 	}
 
-	private static int xpForLevel(int level)
+	/**
+	 * Streams the history of one boss (or all of them) to a CSV file off the client thread.
+	 */
+	private void exportHistory(BossDefinition only)
 	{
-		double points = 0;
-		for (int i = 1; i < level; i++)
+		final BossProfile p = profile;
+		if (p == null)
 		{
-			points += Math.floor(i + 300.0 * Math.pow(2.0, i / 7.0));
+			client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Boss Levels: Nothing to export until your profile has loaded.", null);
+			return;
 		}
-		return (int) Math.floor(points / 4.0);
+
+		final KcHistory source = p.history;
+		final Path file = BASE_DIR.toPath()
+				.resolve("exports")
+				.resolve("kc-" + LocalDateTime.now().format(EXPORT_FILE_TIME) + ".csv");
+
+		executor.execute(() ->
+		{
+			String message;
+			try
+			{
+				Files.createDirectories(file.getParent());
+				long[] rows = {0};
+				try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+				{
+					out.write("boss,time,kc,gained\n");
+					for (BossDefinition boss : BossDefinition.values())
+					{
+						if (only != null && boss != only)
+						{
+							continue;
+						}
+
+						source.scan(boss, Long.MIN_VALUE, Long.MAX_VALUE, (t, kc, gained) ->
+						{
+							try
+							{
+								out.write(boss.configKey + ',' + Instant.ofEpochSecond(t) + ',' + kc + ',' + gained + '\n');
+							}
+							catch (IOException e)
+							{
+								throw new UncheckedIOException(e);
+							}
+							rows[0]++;
+						});
+					}
+				}
+				message = "Boss Levels: Exported " + rows[0] + " KC records to " + file;
+			}
+			catch (IOException | UncheckedIOException e)
+			{
+				log.warn("KC history export failed", e);
+				message = "Boss Levels: Export failed (" + e.getMessage() + ")";
+			}
+
+			final String msg = message;
+			clientThread.invoke(() -> client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", msg, null));
+		});
 	}
 
-	private static int xpForNextLevel(int level)
+	/* ===================== FIREWORKS ===================== */
+
+	private void playLevelUpFireworks(int level)
 	{
-		if (level >= 99)
+		final int anim = (level >= XpCurve.MAX_LEVEL) ? SpotanimID.LEVELUP_99_ANIM : SpotanimID.LEVELUP_ANIM;
+
+		clientThread.invoke(() ->
 		{
-			return xpForLevel(99);
-		}
-		return xpForLevel(level + 1);
+			Player p = client.getLocalPlayer();
+			if (p != null)
+			{
+				p.createSpotAnim(spotAnimKey++, anim, 0, 0);
+			}
+		});
 	}
 
-	/* ===================== CONFIG PERSISTENCE ===================== */
+	/* ===================== LEVEL CAP ===================== */
 
-	private String xpKey(BossDefinition boss)
+	private int maxLevel()
 	{
-		return "xp_" + boss.configKey;
+		return config.levelCap() == BossLevelsConfig.LevelCap.LEVEL_99 ? XpCurve.MAX_LEVEL : XpCurve.MAX_VIRTUAL_LEVEL;
 	}
 
-	private long loadLong(String key, long def)
+	/**
+	 * Stored XP is always the raw KC * xpPerKill; the 200M cap only applies to what is shown.
+	 */
+	private long cappedXp(long xp)
+	{
+		return config.levelCap() == BossLevelsConfig.LevelCap.VIRTUAL_200M ? Math.min(xp, XpCurve.MAX_XP) : xp;
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged e)
 	{
-		String v = configManager.getConfiguration(CONFIG_GROUP, key);
-		if (v == null)
+		if (!CONFIG_GROUP.equals(e.getGroup()))
 		{
-			return def;
+			return;
 		}
 
-		try
+		if ("compactStorage".equals(e.getKey()))
 		{
-			return Long.parseLong(v);
+			final boolean packed = config.compactStorage();
+			executor.execute(() ->
+			{
+				for (BossProfile open : profiles.values())
+				{
+					open.store.setPacked(packed);
+				}
+			});
+			return;
 		}
-		catch (NumberFormatException e)
+
+		if ("hiscoreCacheMinutes".equals(e.getKey()))
 		{
-			return def;
+			hiscoreCache.setTtlMillis(TimeUnit.MINUTES.toMillis(config.hiscoreCacheMinutes()));
+			return;
 		}
-	}
 
-	private void saveLong(String key, long value)
-	{
-		configManager.setConfiguration(CONFIG_GROUP, key, Long.toString(value));
-	}
+		if ("hiscoreSyncMinutes".equals(e.getKey()))
+		{
+			int minutes = config.hiscoreSyncMinutes();
+			hiscoreSync.setIntervalMillis(TimeUnit.MINUTES.toMillis(minutes));
+			if (minutes == 0)
+			{
+				hiscoreSync.stop();
+			}
+			else if (client.getGameState() == GameState.LOGGED_IN)
+			{
+				hiscoreSync.start();
+			}
+			return;
+		}
 
-	/* ===================== HELPERS ===================== */
+		if (!"levelCap".equals(e.getKey()))
+		{
+			return;
+		}
 
-	private BossDefinition findBossByKcName(String name)
-	{
-		String normalized = name == null ? "" : name.trim();
-		for (BossDefinition boss : BossDefinition.values())
+		clientThread.invoke(() ->
 		{
-			if (boss.kcName.equalsIgnoreCase(normalized))
+			int maxLevel = maxLevel();
+			for (BossDefinition boss : BossDefinition.values())
 			{
-				return boss;
+				bossLevels.put(boss, XpCurve.levelForXp(xpOf(boss), maxLevel));
 			}
-		}
-		return null;
+
+			if (panel != null)
+			{
+				panel.markChanged(EnumSet.allOf(BossDefinition.class), null);
+			}
+		});
 	}
 
+	/* ===================== HELPERS ===================== */
+
 	private Color colorForBoss(BossDefinition boss)
 	{
 		if (config.colorMode() == BossLevelsConfig.ColorMode.GLOBAL)
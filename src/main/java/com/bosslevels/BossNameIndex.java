@@ -0,0 +1,156 @@
+package com.bosslevels;
+
+/**
+ * Case-folded name -> boss index over every kcName, hiscoreName, alias and enum constant name,
+ * built once. Keys are folded to lower case with '_' read as ' ', so "ABYSSAL_SIRE", "Abyssal Sire"
+ * and "abyssal sire" all resolve the same way. A leading "The " is optional.
+ * Lookups hash the folded characters in place, so a span of a chat message can be resolved without
+ * taking a substring.
+ */
+final class BossNameIndex
+{
+	// Power of two, comfortably more than twice the number of keys
+	private static final int CAPACITY = 1024;
+	private static final int MASK = CAPACITY - 1;
+
+	private static final String[] KEYS = new String[CAPACITY];
+	private static final BossDefinition[] VALUES = new BossDefinition[CAPACITY];
+
+	private static final String THE = "the ";
+
+	static
+	{
+		// Register in priority order; the first boss to claim a key keeps it
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			register(boss.kcName, boss);
+		}
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			register(boss.hiscoreName, boss);
+			register(boss.name(), boss);
+			for (String alias : boss.aliases)
+			{
+				register(alias, boss);
+			}
+		}
+	}
+
+	private BossNameIndex()
+	{
+	}
+
+	static BossDefinition find(String name)
+	{
+		return name == null ? null : find(name, 0, name.length());
+	}
+
+	/**
+	 * Resolves s[start, end), ignoring surrounding spaces.
+	 */
+	static BossDefinition find(CharSequence s, int start, int end)
+	{
+		while (start < end && s.charAt(start) == ' ')
+		{
+			start++;
+		}
+		while (end > start && s.charAt(end - 1) == ' ')
+		{
+			end--;
+		}
+		if (start == end)
+		{
+			return null;
+		}
+
+		int slot = hash(s, start, end) & MASK;
+		while (KEYS[slot] != null)
+		{
+			if (foldedEquals(KEYS[slot], s, start, end))
+			{
+				return VALUES[slot];
+			}
+			slot = (slot + 1) & MASK;
+		}
+
+		// "The Royal Titans" / "THE_ROYAL_TITANS" against a boss registered without the article
+		int rest = start + THE.length();
+		if (rest < end && foldedEquals(THE, s, start, rest))
+		{
+			return find(s, rest, end);
+		}
+		return null;
+	}
+
+	private static void register(String name, BossDefinition boss)
+	{
+		if (name == null || name.trim().isEmpty())
+		{
+			return;
+		}
+
+		String key = fold(name.trim());
+		put(key, boss);
+		if (key.startsWith(THE) && key.length() > THE.length())
+		{
+			put(key.substring(THE.length()), boss);
+		}
+	}
+
+	private static void put(String key, BossDefinition boss)
+	{
+		int slot = hash(key, 0, key.length()) & MASK;
+		while (KEYS[slot] != null)
+		{
+			if (KEYS[slot].equals(key))
+			{
+				return;
+			}
+			slot = (slot + 1) & MASK;
+		}
+		KEYS[slot] = key;
+		VALUES[slot] = boss;
+	}
+
+	private static String fold(String name)
+	{
+		StringBuilder sb = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++)
+		{
+			sb.append(fold(name.charAt(i)));
+		}
+		return sb.toString();
+	}
+
+	private static char fold(char c)
+	{
+		return c == '_' ? ' ' : Character.toLowerCase(c);
+	}
+
+	private static int hash(CharSequence s, int start, int end)
+	{
+		int h = 0;
+		for (int i = start; i < end; i++)
+		{
+			h = 31 * h + fold(s.charAt(i));
+		}
+		// Spread the bits so the low slots aren't dominated by the last character
+		return h ^ (h >>> 16);
+	}
+
+	private static boolean foldedEquals(String key, CharSequence s, int start, int end)
+	{
+		if (key.length() != end - start)
+		{
+			return false;
+		}
+		for (int i = 0; i < key.length(); i++)
+		{
+			if (key.charAt(i) != fold(s.charAt(start + i)))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
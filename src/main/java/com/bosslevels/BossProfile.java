@@ -0,0 +1,136 @@
+package com.bosslevels;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ScheduledExecutorService;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.config.ConfigManager;
+
+/**
+ * Everything persisted for one RuneScape profile (one account, per world type): the XP store under the
+ * profile's config keys, plus the KC journal and history under bosslevels/&lt;profile&gt;/. Opened the first
+ * time the profile logs in and then kept, so switching back to an account is a reference swap.
+ */
+@Slf4j
+final class BossProfile
+{
+	final String key;
+	final BossXpStore store;
+	final KcJournal journal;
+	final KcHistory history;
+
+	private BossProfile(String key, BossXpStore store, KcJournal journal, KcHistory history)
+	{
+		this.key = key;
+		this.store = store;
+		this.journal = journal;
+		this.history = history;
+	}
+
+	/**
+	 * Loads the profile's config state, replays its journal (recovering anything the config missed) and
+	 * loads its history, then starts the store's flush timer. Does I/O; call off the client thread.
+	 */
+	static BossProfile open(ConfigManager configManager, String group, String key, boolean packed,
+			File baseDir, ScheduledExecutorService executor)
+	{
+		long start = System.nanoTime();
+		File dir = new File(baseDir, key.replaceAll("[^A-Za-z0-9._-]", "_"));
+
+		BossXpStore store = new BossXpStore(configManager, group, key);
+		if (store.load(packed))
+		{
+			// The global state went to this profile; its journal and history go with it
+			adoptGlobalFiles(baseDir.toPath(), dir.toPath());
+		}
+
+		KcJournal journal = new KcJournal(dir);
+		journal.open();
+		reconcile(store, journal, packed);
+
+		KcHistory history = new KcHistory(dir);
+		history.load();
+
+		store.start(executor);
+		log.debug("Opened profile {} in {}us", key, (System.nanoTime() - start) / 1000);
+		return new BossProfile(key, store, journal, history);
+	}
+
+	/**
+	 * Writes everything pending; safe to call from any thread but does I/O.
+	 */
+	void flush()
+	{
+		store.flush();
+		journal.flush();
+		history.flush();
+	}
+
+	/**
+	 * Stops the flush timer and writes and closes everything. Does I/O; call off the client thread.
+	 */
+	void close()
+	{
+		store.stop();
+		journal.close();
+		history.flush();
+	}
+
+	/**
+	 * Brings the store up to the journal wherever they disagree: the journal is written within a tick
+	 * of every change, the config only every FLUSH_INTERVAL_SECONDS, so after a crash it is the newer one.
+	 * Last seen KC is only persisted in the packed format; in the legacy one the journal is where it
+	 * comes from, so filling it in isn't a recovery.
+	 */
+	private static void reconcile(BossXpStore store, KcJournal journal, boolean packed)
+	{
+		int journaled = 0;
+		int recovered = 0;
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			int kc = journal.getKc(boss);
+			if (kc < 0)
+			{
+				continue;
+			}
+
+			journaled++;
+			long xp = (long) kc * boss.xpPerKill;
+			boolean behind = store.get(boss) != xp || (packed && store.getLastKc(boss) != kc);
+			store.setLastKc(boss, kc);
+			if (behind)
+			{
+				store.set(boss, xp);
+				recovered++;
+			}
+		}
+
+		if (recovered > 0)
+		{
+			log.info("Recovered {} boss KC values from the local journal", recovered);
+		}
+		log.debug("Reconciled {} journaled bosses with the config, {} recovered", journaled, recovered);
+	}
+
+	private static void adoptGlobalFiles(Path from, Path to)
+	{
+		try
+		{
+			Files.createDirectories(to);
+			for (String name : new String[]{KcJournal.JOURNAL_FILE, KcJournal.SNAPSHOT_FILE, KcHistory.DIR})
+			{
+				Path src = from.resolve(name);
+				if (Files.exists(src) && !Files.exists(to.resolve(name)))
+				{
+					Files.move(src, to.resolve(name));
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to move boss levels files into {}", to, e);
+		}
+	}
+}
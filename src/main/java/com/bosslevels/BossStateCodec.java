@@ -0,0 +1,214 @@
+package com.bosslevels;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Compact single-value encoding of every boss's XP and last seen KC:
+ * base64 of [version][count] followed by count x [stable id][xp][lastKc + 1], all as unsigned varints.
+ * Bosses still at their defaults (0 xp, KC never seen) are left out.
+ */
+final class BossStateCodec
+{
+	private static final int VERSION = 1;
+
+	/**
+	 * Stable boss ids, by configKey. Append-only: new bosses go at the end and entries are never
+	 * reordered or removed, so an id keeps meaning the same boss even if the enum is re-sorted.
+	 */
+	private static final String[] STABLE_IDS = {
+			"abyssal_sire", "alchemical_hydra", "amoxliatl", "araxxor", "artio", "bryophyta", "callisto",
+			"calvarion", "cerberus", "chaos_elemental", "chaos_fanatic", "commander_zilyana",
+			"general_graardor", "kree_arra", "k_ril_tsutsaroth", "nex", "giant_mole", "corporeal_beast",
+			"crazy_archaeologist", "dagannoth_prime", "dagannoth_rex", "dagannoth_supreme",
+			"deranged_archaeologist", "duke_sucellus", "the_leviathan", "vardorvis", "the_whisperer",
+			"grotesque_guardians", "hespori", "kalphite_queen", "king_black_dragon", "kraken",
+			"the_nightmare", "phosanis_nightmare", "obor", "phantom_muspah", "sarachnis", "scorpia",
+			"skotizo", "shellbane_gryphon", "scurrius", "spindel", "venenatis", "the_hueycoatl",
+			"royal_titans", "thermonuclear_smoke_devil", "vet_ion", "vorkath", "yama", "zulrah"
+	};
+
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+	private static final int[] ID_BY_ORDINAL = new int[BOSSES.length];
+	private static final BossDefinition[] BOSS_BY_ID = new BossDefinition[STABLE_IDS.length];
+
+	static
+	{
+		Arrays.fill(ID_BY_ORDINAL, -1);
+		for (int id = 0; id < STABLE_IDS.length; id++)
+		{
+			for (BossDefinition boss : BOSSES)
+			{
+				if (boss.configKey.equals(STABLE_IDS[id]))
+				{
+					ID_BY_ORDINAL[boss.ordinal()] = id;
+					BOSS_BY_ID[id] = boss;
+				}
+			}
+		}
+
+		for (BossDefinition boss : BOSSES)
+		{
+			if (ID_BY_ORDINAL[boss.ordinal()] < 0)
+			{
+				throw new IllegalStateException("No stable id for " + boss + "; append its configKey to STABLE_IDS");
+			}
+		}
+	}
+
+	private BossStateCodec()
+	{
+	}
+
+	/**
+	 * Stable id of the boss, for anything persisted by boss.
+	 */
+	static int stableId(BossDefinition boss)
+	{
+		return ID_BY_ORDINAL[boss.ordinal()];
+	}
+
+	/**
+	 * Boss for a stable id, or null if this build doesn't know the id.
+	 */
+	static BossDefinition bossForId(int id)
+	{
+		return (id >= 0 && id < BOSS_BY_ID.length) ? BOSS_BY_ID[id] : null;
+	}
+
+	/**
+	 * Encodes xp[] and lastKc[] (both indexed by ordinal; lastKc -1 = never seen).
+	 */
+	static String encode(long[] xp, int[] lastKc)
+	{
+		int count = 0;
+		for (int i = 0; i < BOSSES.length; i++)
+		{
+			if (xp[i] != 0 || lastKc[i] >= 0)
+			{
+				count++;
+			}
+		}
+
+		// Worst case per varint: 5 bytes for an int, 10 for a long
+		byte[] buf = new byte[2 * 5 + count * (5 + 10 + 10)];
+		int pos = writeVarint(buf, 0, VERSION);
+		pos = writeVarint(buf, pos, count);
+		for (int i = 0; i < BOSSES.length; i++)
+		{
+			if (xp[i] != 0 || lastKc[i] >= 0)
+			{
+				pos = writeVarint(buf, pos, ID_BY_ORDINAL[i]);
+				pos = writeVarint(buf, pos, Math.max(0, xp[i]));
+				pos = writeVarint(buf, pos, Math.max(0, lastKc[i] + 1L));
+			}
+		}
+
+		return Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(buf, pos));
+	}
+
+	/**
+	 * Decodes into xp[] and lastKc[] (both indexed by ordinal), resetting bosses that aren't present.
+	 * Returns false, leaving the arrays untouched, if the value is not a valid snapshot.
+	 */
+	static boolean decode(String value, long[] xp, int[] lastKc)
+	{
+		if (value == null || value.isEmpty())
+		{
+			return false;
+		}
+
+		byte[] buf;
+		try
+		{
+			buf = Base64.getDecoder().decode(value);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return false;
+		}
+
+		long[] outXp = new long[BOSSES.length];
+		int[] outKc = new int[BOSSES.length];
+		Arrays.fill(outKc, -1);
+
+		Reader r = new Reader(buf);
+		if (r.next() != VERSION)
+		{
+			return false;
+		}
+
+		long count = r.next();
+		for (long n = 0; n < count && r.ok; n++)
+		{
+			long id = r.next();
+			long entryXp = r.next();
+			long entryKc = r.next() - 1;
+
+			// Ids from a newer version that this build doesn't know are skipped
+			if (id >= 0 && id < BOSS_BY_ID.length && BOSS_BY_ID[(int) id] != null)
+			{
+				int ordinal = BOSS_BY_ID[(int) id].ordinal();
+				outXp[ordinal] = entryXp;
+				outKc[ordinal] = (int) Math.min(entryKc, Integer.MAX_VALUE);
+			}
+		}
+
+		if (!r.ok)
+		{
+			return false;
+		}
+
+		System.arraycopy(outXp, 0, xp, 0, outXp.length);
+		System.arraycopy(outKc, 0, lastKc, 0, outKc.length);
+		return true;
+	}
+
+	static int writeVarint(byte[] buf, int pos, long value)
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buf[pos++] = (byte) value;
+		return pos;
+	}
+
+	/**
+	 * Sequential unsigned varint reader; ok turns false on truncated or overlong input.
+	 */
+	static final class Reader
+	{
+		private final byte[] buf;
+		private int pos;
+		boolean ok = true;
+
+		Reader(byte[] buf)
+		{
+			this.buf = buf;
+		}
+
+		long next()
+		{
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7)
+			{
+				if (pos >= buf.length)
+				{
+					ok = false;
+					return 0;
+				}
+
+				byte b = buf[pos++];
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+				{
+					return value;
+				}
+			}
+			ok = false;
+			return 0;
+		}
+	}
+}
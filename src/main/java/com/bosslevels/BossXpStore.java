@@ -0,0 +1,404 @@
+package com.bosslevels;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+
+/**
+ * Write-behind store for boss XP and last seen KC. The in-memory arrays are the authoritative state;
+ * changes only mark the boss dirty, and dirty entries are written to the config in one batch on a
+ * timer, on logout and on shutdown. Repeated kills between flushes therefore cost one config write
+ * instead of one per kill.
+ * <p>
+ * Two on-disk formats are supported: the legacy one key per boss ("xp_&lt;configKey&gt;", XP only), and
+ * a packed single key holding every boss (see BossStateCodec). Whichever format is not selected is
+ * migrated into the selected one on load and then removed.
+ * <p>
+ * The day/week XP rollups (see XpRollups) live under their own key next to the XP state and are
+ * written by the same flush whenever a gain was added.
+ * <p>
+ * All keys are namespaced by RuneScape profile (a null profile means the global keys used before
+ * profiles existed). The first profile loaded without any state of its own adopts the global state.
+ */
+@Slf4j
+final class BossXpStore
+{
+	static final long FLUSH_INTERVAL_SECONDS = 30;
+	static final String PACKED_KEY = "state";
+	static final String ROLLUPS_KEY = "rollups";
+	static final String ENDPOINT_KEY = "hiscoreEndpoint";
+
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+
+	private final ConfigManager configManager;
+	private final String group;
+	private final String profile;
+
+	private final long[] xp = new long[BOSSES.length];
+	private final int[] lastKc = new int[BOSSES.length];
+	private final BitSet dirty = new BitSet(BOSSES.length);
+	private final XpRollups rollups = new XpRollups(ZoneId.systemDefault());
+	private boolean rollupsDirty;
+
+	private boolean packed;
+	private ScheduledFuture<?> flushTask;
+
+	// Counters for the debug log: config I/O done and saved
+	private long updates;
+	private long writesAvoided;
+	private long writes;
+	private long flushes;
+	private long totalFlushNanos;
+	private long maxFlushNanos;
+
+	BossXpStore(ConfigManager configManager, String group, String profile)
+	{
+		this.configManager = configManager;
+		this.group = group;
+		this.profile = profile;
+		Arrays.fill(lastKc, -1);
+	}
+
+	/**
+	 * Reads every boss from the config in the given format, replacing the in-memory state.
+	 * Data found only in the other format is migrated and the other format's keys are removed.
+	 * Returns true if this profile had no state and took over the global keys.
+	 */
+	synchronized boolean load(boolean packed)
+	{
+		boolean adopted = profile != null && !hasState(profile) && hasState(null);
+		if (adopted)
+		{
+			adoptGlobal();
+		}
+
+		this.packed = packed;
+		dirty.clear();
+		Arrays.fill(lastKc, -1);
+		rollups.decode(read(ROLLUPS_KEY));
+		rollupsDirty = false;
+
+		String blob = read(PACKED_KEY);
+		boolean hasPacked = BossStateCodec.decode(blob, xp, lastKc);
+
+		if (packed)
+		{
+			if (!hasPacked)
+			{
+				loadLegacy();
+				migrate();
+			}
+		}
+		else if (hasPacked)
+		{
+			// Switched back to per-key: write the packed state out as legacy keys
+			migrate();
+		}
+		else
+		{
+			loadLegacy();
+		}
+		return adopted;
+	}
+
+	/**
+	 * Switches format at runtime; the in-memory state is rewritten in the new format.
+	 */
+	synchronized void setPacked(boolean packed)
+	{
+		if (this.packed == packed)
+		{
+			return;
+		}
+		this.packed = packed;
+		migrate();
+	}
+
+	synchronized long get(BossDefinition boss)
+	{
+		return xp[boss.ordinal()];
+	}
+
+	synchronized void set(BossDefinition boss, long value)
+	{
+		int i = boss.ordinal();
+		if (xp[i] == value)
+		{
+			return;
+		}
+
+		xp[i] = value;
+		markDirty(i);
+	}
+
+	/**
+	 * Last KC seen for the boss, or -1 if none was seen (or it isn't persisted in this format).
+	 */
+	synchronized int getLastKc(BossDefinition boss)
+	{
+		return lastKc[boss.ordinal()];
+	}
+
+	/**
+	 * Ordinals of the bosses whose KC in `kc` (indexed by ordinal; negative or UNMAPPED for no reading)
+	 * is ahead of the last seen KC, in order. Readings behind it (hiscores lag chat) don't count. One
+	 * lock for the whole comparison; any thread.
+	 */
+	synchronized int[] changedKc(int[] kc)
+	{
+		int[] changed = new int[kc.length];
+		int n = 0;
+		for (int i = 0; i < kc.length; i++)
+		{
+			if (kc[i] >= 0 && kc[i] > lastKc[i])
+			{
+				changed[n++] = i;
+			}
+		}
+		return n == changed.length ? changed : Arrays.copyOf(changed, n);
+	}
+
+	synchronized void setLastKc(BossDefinition boss, int kc)
+	{
+		int i = boss.ordinal();
+		if (lastKc[i] == kc)
+		{
+			return;
+		}
+
+		lastKc[i] = kc;
+		if (packed)
+		{
+			markDirty(i);
+		}
+	}
+
+	/**
+	 * Adds a gain to the boss's day/week rollups.
+	 */
+	synchronized void addGain(BossDefinition boss, long epochSecond, long xpGained, int killsGained)
+	{
+		rollups.add(boss, epochSecond, xpGained, killsGained);
+		rollupsDirty = true;
+	}
+
+	/**
+	 * Rollups for time-window reads; safe to query from any thread.
+	 */
+	XpRollups rollups()
+	{
+		return rollups;
+	}
+
+	private void markDirty(int i)
+	{
+		updates++;
+		if (dirty.get(i))
+		{
+			// Overwrites a value that was never written out
+			writesAvoided++;
+		}
+		dirty.set(i);
+	}
+
+	/**
+	 * Starts the periodic flush; safe to call again after stop().
+	 */
+	synchronized void start(ScheduledExecutorService executor)
+	{
+		if (flushTask == null)
+		{
+			flushTask = executor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Cancels the periodic flush and writes out anything still dirty.
+	 */
+	void stop()
+	{
+		synchronized (this)
+		{
+			if (flushTask != null)
+			{
+				flushTask.cancel(false);
+				flushTask = null;
+			}
+		}
+		flush();
+	}
+
+	/**
+	 * Writes every dirty boss to the config: one key in packed mode, one key per dirty boss otherwise,
+	 * plus the rollups key if any gain was added.
+	 */
+	synchronized void flush()
+	{
+		if (dirty.isEmpty() && !rollupsDirty)
+		{
+			return;
+		}
+
+		long start = System.nanoTime();
+		int written = 0;
+		if (rollupsDirty)
+		{
+			configManager.setConfiguration(group, profile, ROLLUPS_KEY, rollups.encode(System.currentTimeMillis() / 1000));
+			rollupsDirty = false;
+			written++;
+		}
+
+		if (packed && !dirty.isEmpty())
+		{
+			configManager.setConfiguration(group, profile, PACKED_KEY, BossStateCodec.encode(xp, lastKc));
+			written++;
+		}
+		else
+		{
+			for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1))
+			{
+				configManager.setConfiguration(group, profile, key(BOSSES[i]), Long.toString(xp[i]));
+				written++;
+			}
+		}
+		dirty.clear();
+
+		long nanos = System.nanoTime() - start;
+		writes += written;
+		flushes++;
+		totalFlushNanos += nanos;
+		maxFlushNanos = Math.max(maxFlushNanos, nanos);
+
+		log.debug("Flushed {} boss state keys in {}us (updates={}, writes={}, avoided={}, flushes={}, avgFlush={}us, maxFlush={}us)",
+				written, nanos / 1000, updates, writes, writesAvoided, flushes,
+				totalFlushNanos / flushes / 1000, maxFlushNanos / 1000);
+	}
+
+	/**
+	 * The hiscore endpoint this profile was last found on, or null if it never was.
+	 */
+	HiscoreEndpoint getHiscoreEndpoint()
+	{
+		String name = read(ENDPOINT_KEY);
+		if (name == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return HiscoreEndpoint.valueOf(name);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+
+	void setHiscoreEndpoint(HiscoreEndpoint endpoint)
+	{
+		configManager.setConfiguration(group, profile, ENDPOINT_KEY, endpoint.name());
+	}
+
+	static String key(BossDefinition boss)
+	{
+		return "xp_" + boss.configKey;
+	}
+
+	private void loadLegacy()
+	{
+		for (BossDefinition boss : BOSSES)
+		{
+			xp[boss.ordinal()] = parseLong(read(key(boss)), 0L);
+		}
+	}
+
+	/**
+	 * Writes the whole in-memory state in the current format, then removes the other format's keys.
+	 */
+	private void migrate()
+	{
+		dirty.set(0, BOSSES.length);
+		flush();
+
+		if (packed)
+		{
+			for (BossDefinition boss : BOSSES)
+			{
+				configManager.unsetConfiguration(group, profile, key(boss));
+			}
+		}
+		else
+		{
+			configManager.unsetConfiguration(group, profile, PACKED_KEY);
+		}
+	}
+
+	private String read(String key)
+	{
+		return configManager.getConfiguration(group, profile, key);
+	}
+
+	private boolean hasState(String prof)
+	{
+		if (configManager.getConfiguration(group, prof, PACKED_KEY) != null)
+		{
+			return true;
+		}
+		for (BossDefinition boss : BOSSES)
+		{
+			if (configManager.getConfiguration(group, prof, key(boss)) != null)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Moves every global state key into this profile, as-is.
+	 */
+	private void adoptGlobal()
+	{
+		moveGlobal(PACKED_KEY);
+		moveGlobal(ROLLUPS_KEY);
+		for (BossDefinition boss : BOSSES)
+		{
+			moveGlobal(key(boss));
+		}
+		log.info("Moved boss levels state into RuneScape profile {}", profile);
+	}
+
+	private void moveGlobal(String key)
+	{
+		String value = configManager.getConfiguration(group, key);
+		if (value != null)
+		{
+			configManager.setConfiguration(group, profile, key, value);
+			configManager.unsetConfiguration(group, key);
+		}
+	}
+
+	private static long parseLong(String v, long def)
+	{
+		if (v == null)
+		{
+			return def;
+		}
+
+		try
+		{
+			return Long.parseLong(v);
+		}
+		catch (NumberFormatException e)
+		{
+			return def;
+		}
+	}
+}
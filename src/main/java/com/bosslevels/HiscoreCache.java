@@ -0,0 +1,135 @@
+package com.bosslevels;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+
+/**
+ * Hiscore lookups shared per username. A caller asking while a lookup for the same name is in flight
+ * gets that lookup's future instead of starting another (single flight), and a found result is reused
+ * until the TTL runs out, so world hops, reconnects and repeated logins within minutes don't reach the
+ * hiscores at all. Counts cache hits, misses and callers that joined a lookup already in flight.
+ */
+@Slf4j
+final class HiscoreCache
+{
+	private static final class Entry
+	{
+		final HiscoreProber.Hit hit;
+		final long fetchedMillis;
+
+		Entry(HiscoreProber.Hit hit, long fetchedMillis)
+		{
+			this.hit = hit;
+			this.fetchedMillis = fetchedMillis;
+		}
+	}
+
+	private final HiscoreProber prober;
+	private final LongSupplier clock;
+
+	// Guarded by this
+	private final Map<String, Entry> cached = new HashMap<>();
+	private final Map<String, CompletableFuture<HiscoreProber.Hit>> inFlight = new HashMap<>();
+	private long ttlMillis;
+	private long hits;
+	private long misses;
+	private long shared;
+
+	HiscoreCache(HiscoreProber prober, LongSupplier clock, long ttlMillis)
+	{
+		this.prober = prober;
+		this.clock = clock;
+		this.ttlMillis = ttlMillis;
+	}
+
+	/**
+	 * The player's hiscores: cached if younger than the TTL (unless force), else the lookup already in
+	 * flight for the name, else a new lookup starting at the preferred endpoint. Completes with null if
+	 * the player wasn't found; failures aren't cached.
+	 */
+	CompletableFuture<HiscoreProber.Hit> lookup(String username, HiscoreEndpoint preferred, boolean force)
+	{
+		final String key = key(username);
+		final CompletableFuture<HiscoreProber.Hit> started;
+		synchronized (this)
+		{
+			Entry entry = cached.get(key);
+			if (!force && entry != null && clock.getAsLong() - entry.fetchedMillis < ttlMillis)
+			{
+				hits++;
+				log.debug("Hiscore cache hit for {} (hits={}, misses={}, shared={})", username, hits, misses, shared);
+				return CompletableFuture.completedFuture(entry.hit);
+			}
+
+			CompletableFuture<HiscoreProber.Hit> running = inFlight.get(key);
+			if (running != null)
+			{
+				shared++;
+				log.debug("Joined hiscore lookup in flight for {} (hits={}, misses={}, shared={})", username, hits, misses, shared);
+				return running;
+			}
+
+			misses++;
+			log.debug("Hiscore cache miss for {} (hits={}, misses={}, shared={})", username, hits, misses, shared);
+			started = new CompletableFuture<>();
+			inFlight.put(key, started);
+		}
+
+		// Started outside the lock: a lookup that completes at once re-enters below
+		prober.probe(username, preferred).whenComplete((hit, e) ->
+		{
+			synchronized (this)
+			{
+				// Not cached if the name was invalidated meanwhile: it was asked before the KC moved on
+				if (inFlight.remove(key, started) && hit != null)
+				{
+					cached.put(key, new Entry(hit, clock.getAsLong()));
+				}
+			}
+			started.complete(hit);
+		});
+		return started;
+	}
+
+	/**
+	 * Drops the player's cached result, e.g. once their KC has moved past it. A lookup still in flight
+	 * completes for its callers but isn't cached or shared with later ones.
+	 */
+	synchronized void invalidate(String username)
+	{
+		String key = key(username);
+		cached.remove(key);
+		inFlight.remove(key);
+	}
+
+	synchronized void setTtlMillis(long ttlMillis)
+	{
+		this.ttlMillis = ttlMillis;
+	}
+
+	synchronized long getHits()
+	{
+		return hits;
+	}
+
+	synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	synchronized long getShared()
+	{
+		return shared;
+	}
+
+	private static String key(String username)
+	{
+		// Names are case-insensitive; the client sometimes reports spaces as non-breaking ones
+		return username.toLowerCase(Locale.ROOT).replace('\u00a0', ' ');
+	}
+}
@@ -0,0 +1,302 @@
+package com.bosslevels;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads every boss KC out of a hiscore result in one pass. How a boss's KC is reached (a
+ * getBossKc/getBossScore(enum) method, or a Map field keyed by a hiscore enum) differs between RuneLite
+ * versions, so it is worked out with reflection once per result class and kept as MethodHandles in a
+ * table indexed by boss ordinal. Which int to read from a score object is likewise resolved once per
+ * score class. Holds no client state; safe to use from any thread.
+ */
+@Slf4j
+final class HiscoreKcExtractor
+{
+	/**
+	 * KC of a boss the result has no entry for (as opposed to -1, an unranked boss).
+	 */
+	static final int UNMAPPED = Integer.MIN_VALUE;
+
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+	private static final String[] BOSS_METHODS = {"getBossKc", "getBossScore"};
+	private static final String[] VALUE_GETTERS = {"getKillCount", "getKc", "getLevel", "getScore", "getValue"};
+
+	private static final MethodType READER = MethodType.methodType(Object.class, Object.class);
+	private static final MethodHandle MAP_GET;
+	private static final MethodHandle NOT_NULL;
+	private static final MethodHandle NO_GETTER = MethodHandles.dropArguments(
+			MethodHandles.constant(Object.class, null), 0, Object.class);
+
+	static
+	{
+		try
+		{
+			MAP_GET = MethodHandles.publicLookup().findVirtual(Map.class, "get", READER);
+			NOT_NULL = MethodHandles.lookup().findStatic(HiscoreKcExtractor.class, "notNull",
+					MethodType.methodType(boolean.class, Object.class));
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static final ClassValue<HiscoreKcExtractor> BY_CLASS = new ClassValue<HiscoreKcExtractor>()
+	{
+		@Override
+		protected HiscoreKcExtractor computeValue(Class<?> type)
+		{
+			return new HiscoreKcExtractor(type);
+		}
+	};
+
+	// Per score class, a (Object)Object handle returning its KC as an Integer, or NO_GETTER
+	private static final ClassValue<MethodHandle> VALUE_GETTER = new ClassValue<MethodHandle>()
+	{
+		@Override
+		protected MethodHandle computeValue(Class<?> type)
+		{
+			return valueGetter(type);
+		}
+	};
+
+	// Per boss ordinal, (Object)Object handles reading its raw score from a result, tried in order
+	private final MethodHandle[][] readers = new MethodHandle[BOSSES.length][];
+
+	// Map fields whose key type isn't declared; their entries are matched by name on every extract
+	private final MethodHandle[] untypedMaps;
+
+	private HiscoreKcExtractor(Class<?> type)
+	{
+		List<List<MethodHandle>> table = new ArrayList<>(BOSSES.length);
+		for (int i = 0; i < BOSSES.length; i++)
+		{
+			table.add(new ArrayList<>(2));
+		}
+		List<MethodHandle> untyped = new ArrayList<>();
+
+		// 1) Public methods like getBossKc/getBossScore that take a hiscore enum
+		for (Method m : type.getMethods())
+		{
+			if (!Arrays.asList(BOSS_METHODS).contains(m.getName())
+					|| m.getParameterCount() != 1 || !m.getParameterTypes()[0].isEnum())
+			{
+				continue;
+			}
+
+			try
+			{
+				MethodHandle h = MethodHandles.publicLookup().unreflect(m).asType(
+						MethodType.methodType(Object.class, Object.class, Object.class));
+				for (Map.Entry<BossDefinition, Object> e : constantsByBoss(m.getParameterTypes()[0]).entrySet())
+				{
+					table.get(e.getKey().ordinal()).add(MethodHandles.insertArguments(h, 1, e.getValue()));
+				}
+			}
+			catch (IllegalAccessException e)
+			{
+				log.debug("Skipping {}", m, e);
+			}
+		}
+
+		// 2) Map fields keyed by a hiscore enum
+		for (Field f : type.getDeclaredFields())
+		{
+			if (!Map.class.isAssignableFrom(f.getType()) || Modifier.isStatic(f.getModifiers()))
+			{
+				continue;
+			}
+
+			MethodHandle getter;
+			try
+			{
+				f.setAccessible(true);
+				getter = MethodHandles.lookup().unreflectGetter(f).asType(READER);
+			}
+			catch (RuntimeException | IllegalAccessException e)
+			{
+				log.debug("Skipping {}", f, e);
+				continue;
+			}
+
+			Class<?> keyType = keyType(f);
+			if (keyType == null)
+			{
+				untyped.add(getter);
+				continue;
+			}
+
+			for (Map.Entry<BossDefinition, Object> e : constantsByBoss(keyType).entrySet())
+			{
+				MethodHandle get = MethodHandles.insertArguments(MAP_GET, 1, e.getValue()).asType(READER);
+				table.get(e.getKey().ordinal()).add(MethodHandles.filterReturnValue(getter,
+						MethodHandles.guardWithTest(NOT_NULL, get, NO_GETTER)));
+			}
+		}
+
+		int mapped = 0;
+		for (int i = 0; i < BOSSES.length; i++)
+		{
+			readers[i] = table.get(i).toArray(new MethodHandle[0]);
+			mapped += readers[i].length > 0 ? 1 : 0;
+		}
+		untypedMaps = untyped.toArray(new MethodHandle[0]);
+		log.debug("Hiscore KC accessors for {}: {} bosses mapped, {} untyped map fields", type.getName(), mapped, untypedMaps.length);
+	}
+
+	private static boolean notNull(Object o)
+	{
+		return o != null;
+	}
+
+	static HiscoreKcExtractor of(Class<?> resultType)
+	{
+		return BY_CLASS.get(resultType);
+	}
+
+	/**
+	 * Every boss's KC, indexed by ordinal: UNMAPPED if the result has no entry for it, otherwise the
+	 * hiscore value (-1 when unranked).
+	 */
+	int[] extract(Object result)
+	{
+		int[] kc = new int[BOSSES.length];
+		Arrays.fill(kc, UNMAPPED);
+
+		for (int i = 0; i < BOSSES.length; i++)
+		{
+			for (MethodHandle reader : readers[i])
+			{
+				Integer v = toInt(invoke(reader, result));
+				if (v != null)
+				{
+					kc[i] = v;
+					break;
+				}
+			}
+		}
+
+		for (MethodHandle getter : untypedMaps)
+		{
+			Object map = invoke(getter, result);
+			if (!(map instanceof Map))
+			{
+				continue;
+			}
+
+			for (Map.Entry<?, ?> e : ((Map<?, ?>) map).entrySet())
+			{
+				if (!(e.getKey() instanceof Enum))
+				{
+					continue;
+				}
+
+				BossDefinition boss = BossNameIndex.find(((Enum<?>) e.getKey()).name());
+				if (boss != null && kc[boss.ordinal()] == UNMAPPED)
+				{
+					Integer v = toInt(e.getValue());
+					if (v != null)
+					{
+						kc[boss.ordinal()] = v;
+					}
+				}
+			}
+		}
+		return kc;
+	}
+
+	private static Object invoke(MethodHandle h, Object arg)
+	{
+		try
+		{
+			return (Object) h.invokeExact(arg);
+		}
+		catch (Throwable e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * A score as an int: Integers as they are, anything else through its first KC-like getter.
+	 */
+	private static Integer toInt(Object value)
+	{
+		if (value == null || value instanceof Integer)
+		{
+			return (Integer) value;
+		}
+
+		Object out = invoke(VALUE_GETTER.get(value.getClass()), value);
+		return out instanceof Integer ? (Integer) out : null;
+	}
+
+	private static MethodHandle valueGetter(Class<?> type)
+	{
+		for (String name : VALUE_GETTERS)
+		{
+			try
+			{
+				Method m = type.getMethod(name);
+				if (m.getReturnType() == int.class || m.getReturnType() == Integer.class)
+				{
+					return MethodHandles.publicLookup().unreflect(m).asType(READER);
+				}
+			}
+			catch (NoSuchMethodException | IllegalAccessException ignored)
+			{
+			}
+		}
+		return NO_GETTER;
+	}
+
+	/**
+	 * The boss each constant of a hiscore enum stands for, by name (ABYSSAL_SIRE -> "abyssal sire").
+	 */
+	private static Map<BossDefinition, Object> constantsByBoss(Class<?> enumType)
+	{
+		Map<BossDefinition, Object> out = new EnumMap<>(BossDefinition.class);
+		Object[] constants = enumType.getEnumConstants();
+		if (constants == null)
+		{
+			return out;
+		}
+
+		for (Object c : constants)
+		{
+			BossDefinition boss = BossNameIndex.find(((Enum<?>) c).name());
+			if (boss != null)
+			{
+				out.putIfAbsent(boss, c);
+			}
+		}
+		return out;
+	}
+
+	private static Class<?> keyType(Field f)
+	{
+		Type t = f.getGenericType();
+		if (t instanceof ParameterizedType)
+		{
+			Type key = ((ParameterizedType) t).getActualTypeArguments()[0];
+			if (key instanceof Class && ((Class<?>) key).isEnum())
+			{
+				return (Class<?>) key;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,228 @@
+package com.bosslevels;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreResult;
+
+/**
+ * Finds which hiscore endpoint an account is on. The endpoint that worked last time is asked alone
+ * first; if there is none, or it fails, the remaining endpoints are asked at once (at most maxInFlight
+ * requests outstanding). Results are accepted in ENDPOINTS order whatever order they arrive in: an
+ * endpoint wins only once every endpoint before it has failed, so an account listed on several (an
+ * ironman is also on NORMAL) resolves the same way the old serial lookup did. Requests that can no
+ * longer win are cancelled and any result they still produce is ignored.
+ */
+@Slf4j
+final class HiscoreProber
+{
+	static final int MAX_IN_FLIGHT = 4;
+
+	/**
+	 * Endpoints an account's boss KC is read from, in priority order. Deadman, seasonal, tournament and
+	 * fresh start worlds are separate characters that can share the name, so they're never asked.
+	 */
+	static final List<HiscoreEndpoint> ENDPOINTS = Collections.unmodifiableList(Arrays.asList(
+			HiscoreEndpoint.NORMAL,
+			HiscoreEndpoint.IRONMAN,
+			HiscoreEndpoint.HARDCORE_IRONMAN,
+			HiscoreEndpoint.ULTIMATE_IRONMAN,
+			HiscoreEndpoint.PURE,
+			HiscoreEndpoint.LEVEL_3_SKILLER));
+
+	/**
+	 * One hiscore request; HiscoreClient::lookupAsync in the plugin. A null result or an exceptional
+	 * completion both mean the player isn't on that endpoint.
+	 */
+	@FunctionalInterface
+	interface Lookup
+	{
+		CompletableFuture<HiscoreResult> lookup(String username, HiscoreEndpoint endpoint);
+	}
+
+	static final class Hit
+	{
+		final HiscoreEndpoint endpoint;
+		final HiscoreResult result;
+
+		Hit(HiscoreEndpoint endpoint, HiscoreResult result)
+		{
+			this.endpoint = endpoint;
+			this.result = result;
+		}
+	}
+
+	private final Lookup lookup;
+	private final int maxInFlight;
+
+	HiscoreProber(Lookup lookup, int maxInFlight)
+	{
+		this.lookup = lookup;
+		this.maxInFlight = Math.max(1, maxInFlight);
+	}
+
+	/**
+	 * Completes with the winning endpoint and its result, or with null if no endpoint has the player.
+	 * Never completes exceptionally.
+	 */
+	CompletableFuture<Hit> probe(String username, HiscoreEndpoint preferred)
+	{
+		final long start = System.nanoTime();
+		CompletableFuture<Hit> hit;
+		if (preferred == null || !ENDPOINTS.contains(preferred))
+		{
+			hit = new Race(username, null).start();
+		}
+		else
+		{
+			hit = request(username, preferred).handle((result, e) -> result).thenCompose(result ->
+					result != null
+							? CompletableFuture.completedFuture(new Hit(preferred, result))
+							: new Race(username, preferred).start());
+		}
+
+		return hit.whenComplete((h, e) -> log.debug("Hiscore probe for {}: {} in {}ms", username,
+				h == null ? "not found" : h.endpoint, (System.nanoTime() - start) / 1_000_000));
+	}
+
+	private CompletableFuture<HiscoreResult> request(String username, HiscoreEndpoint endpoint)
+	{
+		try
+		{
+			CompletableFuture<HiscoreResult> f = lookup.lookup(username, endpoint);
+			return f != null ? f : CompletableFuture.completedFuture(null);
+		}
+		catch (RuntimeException e)
+		{
+			CompletableFuture<HiscoreResult> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	/**
+	 * Every endpoint but the skipped one, keeping at most maxInFlight requests outstanding and
+	 * requesting them in priority order.
+	 */
+	private final class Race
+	{
+		private final String username;
+		private final HiscoreEndpoint[] order;
+		private final CompletableFuture<?>[] inFlight;
+		private final HiscoreResult[] results;
+		private final boolean[] failed;
+		private final CompletableFuture<Hit> out = new CompletableFuture<>();
+
+		// Guarded by this: next endpoint to request, first endpoint whose outcome is still needed, lowest
+		// endpoint with a result so far, and requests outstanding
+		private int requested;
+		private int needed;
+		private int best;
+		private int outstanding;
+
+		Race(String username, HiscoreEndpoint skip)
+		{
+			this.username = username;
+			order = ENDPOINTS.stream().filter(ep -> ep != skip).toArray(HiscoreEndpoint[]::new);
+			inFlight = new CompletableFuture<?>[order.length];
+			results = new HiscoreResult[order.length];
+			failed = new boolean[order.length];
+			best = order.length;
+		}
+
+		synchronized CompletableFuture<Hit> start()
+		{
+			fill();
+			return out;
+		}
+
+		private void fill()
+		{
+			// Nothing after the best result so far can win
+			while (!out.isDone() && outstanding < maxInFlight && requested < best)
+			{
+				final int i = requested++;
+				CompletableFuture<HiscoreResult> f = request(username, order[i]);
+				inFlight[i] = f;
+				outstanding++;
+				f.whenComplete((result, e) -> done(i, e == null ? result : null));
+			}
+			settle();
+		}
+
+		private synchronized void done(int i, HiscoreResult result)
+		{
+			if (inFlight[i] == null)
+			{
+				// Cancelled here, or already counted
+				return;
+			}
+			inFlight[i] = null;
+			outstanding--;
+			if (out.isDone())
+			{
+				return;
+			}
+
+			if (result == null)
+			{
+				failed[i] = true;
+			}
+			else
+			{
+				results[i] = result;
+				if (i < best)
+				{
+					best = i;
+					cancelFrom(i + 1);
+				}
+			}
+			fill();
+		}
+
+		/**
+		 * Completes once the highest priority endpoint still needed has answered: with its result, or
+		 * with null once every endpoint has failed.
+		 */
+		private void settle()
+		{
+			if (out.isDone())
+			{
+				return;
+			}
+
+			while (needed < order.length && failed[needed])
+			{
+				needed++;
+			}
+
+			if (needed == order.length)
+			{
+				out.complete(null);
+			}
+			else if (results[needed] != null)
+			{
+				// Complete first: cancelling a loser runs its callback right here, which must see the race won
+				out.complete(new Hit(order[needed], results[needed]));
+				cancelFrom(0);
+			}
+		}
+
+		private void cancelFrom(int from)
+		{
+			for (int j = from; j < order.length; j++)
+			{
+				CompletableFuture<?> f = inFlight[j];
+				if (f != null)
+				{
+					inFlight[j] = null;
+					outstanding--;
+					f.cancel(true);
+				}
+			}
+		}
+	}
+}
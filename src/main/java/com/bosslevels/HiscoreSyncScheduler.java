@@ -0,0 +1,273 @@
+package com.bosslevels;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the hiscore KC from going stale while logged in. Once the last successful sync (from any
+ * source: login, the panel button or this scheduler) is older than the interval, it syncs again. A
+ * failed sync is retried with exponential backoff and jitter (half the delay fixed, half random),
+ * capped at MAX_BACKOFF_MILLIS, so a hiscores outage costs a few requests an hour rather than a storm.
+ * <p>
+ * Runs only between start() and stop(); stop() cancels the pending run and ignores any sync still in
+ * flight. Every decision is logged at debug and the latest state is readable through the getters.
+ */
+@Slf4j
+final class HiscoreSyncScheduler
+{
+	static final long BASE_BACKOFF_MILLIS = 30_000;
+	static final long MAX_BACKOFF_MILLIS = 30 * 60_000;
+
+	/**
+	 * Runs a task after a delay; the returned Runnable cancels it. The plugin's executor in the client,
+	 * a fake in tests.
+	 */
+	@FunctionalInterface
+	interface Timer
+	{
+		Runnable schedule(Runnable task, long delayMillis);
+	}
+
+	private final Timer timer;
+	private final LongSupplier clock;
+	private final DoubleSupplier random;
+
+	// One sync; completes with true/false for success/failure, or null if it didn't run (e.g. no profile)
+	private final Supplier<CompletableFuture<Boolean>> sync;
+
+	// Guarded by this
+	private long intervalMillis;
+	private boolean running;
+	private int generation;
+	private Runnable cancelPending;
+	private long lastSuccessMillis = -1;
+	private int consecutiveFailures;
+	private long nextRunMillis = -1;
+	private long lastDelayMillis;
+	private String lastDecision = "stopped";
+	private long syncs;
+	private long successes;
+	private long failures;
+
+	HiscoreSyncScheduler(Timer timer, LongSupplier clock, DoubleSupplier random,
+			Supplier<CompletableFuture<Boolean>> sync, long intervalMillis)
+	{
+		this.timer = timer;
+		this.clock = clock;
+		this.random = random;
+		this.sync = sync;
+		this.intervalMillis = intervalMillis;
+	}
+
+	/**
+	 * Starts periodic syncs (logged in). The first is one interval after the last success, or from now
+	 * if there was none. Does nothing if already running.
+	 */
+	synchronized void start()
+	{
+		if (running)
+		{
+			return;
+		}
+		running = true;
+		generation++;
+
+		long now = clock.getAsLong();
+		long due = lastSuccessMillis < 0 ? now + intervalMillis : lastSuccessMillis + intervalMillis;
+		schedule(Math.max(0, due - now), "started");
+	}
+
+	/**
+	 * Stops (logged out or shutting down): cancels the pending run and ignores syncs in flight.
+	 */
+	synchronized void stop()
+	{
+		if (!running)
+		{
+			return;
+		}
+		running = false;
+		generation++;
+		cancel();
+		nextRunMillis = -1;
+		decide("stopped");
+	}
+
+	/**
+	 * Result of a sync from any source. null (didn't run) changes nothing.
+	 */
+	synchronized void recordResult(Boolean ok)
+	{
+		if (ok == null)
+		{
+			return;
+		}
+
+		long now = clock.getAsLong();
+		if (ok)
+		{
+			successes++;
+			lastSuccessMillis = now;
+			consecutiveFailures = 0;
+			if (running)
+			{
+				schedule(intervalMillis, "synced");
+			}
+			return;
+		}
+
+		failures++;
+		consecutiveFailures++;
+		if (running)
+		{
+			schedule(backoffMillis(consecutiveFailures), "failed x" + consecutiveFailures + ", backing off");
+		}
+	}
+
+	synchronized void setIntervalMillis(long intervalMillis)
+	{
+		this.intervalMillis = intervalMillis;
+		if (running && consecutiveFailures == 0)
+		{
+			long now = clock.getAsLong();
+			long due = (lastSuccessMillis < 0 ? now : lastSuccessMillis) + intervalMillis;
+			schedule(Math.max(0, due - now), "interval changed");
+		}
+	}
+
+	/**
+	 * Delay before retry number `failures`: BASE_BACKOFF_MILLIS doubled per earlier failure, capped,
+	 * of which the second half is random.
+	 */
+	long backoffMillis(int failures)
+	{
+		long delay = BASE_BACKOFF_MILLIS << Math.min(failures - 1, 20);
+		delay = Math.min(MAX_BACKOFF_MILLIS, delay);
+		return delay / 2 + (long) (random.getAsDouble() * (delay / 2));
+	}
+
+	private void run(int gen)
+	{
+		synchronized (this)
+		{
+			cancelPending = null;
+			if (!running || gen != generation)
+			{
+				return;
+			}
+
+			long now = clock.getAsLong();
+			long due = lastSuccessMillis + intervalMillis;
+			if (consecutiveFailures == 0 && lastSuccessMillis >= 0 && now < due)
+			{
+				// Something else synced since this run was planned
+				schedule(due - now, "still fresh");
+				return;
+			}
+
+			syncs++;
+			nextRunMillis = -1;
+			decide("syncing");
+		}
+
+		CompletableFuture<Boolean> result;
+		try
+		{
+			result = sync.get();
+		}
+		catch (RuntimeException e)
+		{
+			log.warn("Hiscore sync failed", e);
+			result = CompletableFuture.completedFuture(false);
+		}
+
+		result.whenComplete((ok, e) -> finished(gen, e == null ? ok : Boolean.FALSE));
+	}
+
+	private synchronized void finished(int gen, Boolean ok)
+	{
+		if (!running || gen != generation)
+		{
+			return;
+		}
+
+		if (ok == null)
+		{
+			// Didn't run (no profile or player name yet): look again shortly
+			schedule(BASE_BACKOFF_MILLIS, "skipped");
+			return;
+		}
+		recordResult(ok);
+	}
+
+	private void schedule(long delayMillis, String why)
+	{
+		cancel();
+		final int gen = generation;
+		lastDelayMillis = delayMillis;
+		nextRunMillis = clock.getAsLong() + delayMillis;
+		cancelPending = timer.schedule(() -> run(gen), delayMillis);
+		decide(why + ", next sync in " + delayMillis / 1000 + "s");
+	}
+
+	private void cancel()
+	{
+		if (cancelPending != null)
+		{
+			cancelPending.run();
+			cancelPending = null;
+		}
+	}
+
+	private void decide(String decision)
+	{
+		lastDecision = decision;
+		log.debug("Hiscore sync: {} (syncs={}, successes={}, failures={})", decision, syncs, successes, failures);
+	}
+
+	synchronized boolean isRunning()
+	{
+		return running;
+	}
+
+	/**
+	 * When the next sync is planned (clock millis), or -1 if none is.
+	 */
+	synchronized long getNextRunMillis()
+	{
+		return nextRunMillis;
+	}
+
+	synchronized long getLastDelayMillis()
+	{
+		return lastDelayMillis;
+	}
+
+	synchronized String getLastDecision()
+	{
+		return lastDecision;
+	}
+
+	synchronized int getConsecutiveFailures()
+	{
+		return consecutiveFailures;
+	}
+
+	synchronized long getSyncs()
+	{
+		return syncs;
+	}
+
+	synchronized long getSuccesses()
+	{
+		return successes;
+	}
+
+	synchronized long getFailures()
+	{
+		return failures;
+	}
+}
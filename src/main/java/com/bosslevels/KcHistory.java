@@ -0,0 +1,377 @@
+package com.bosslevels;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-boss KC timeline, compressed in the style of Gorilla: each point is the zigzag varint of its
+ * timestamp delta-of-delta (epoch seconds) followed by the zigzag varint of its KC delta. A steady run
+ * of kills costs two or three bytes a point, so millions of kills fit in a few MB.
+ * <p>
+ * Series are append-only byte arrays that grow by copying, so a reader can take (array, length) under
+ * the lock and decode it afterwards without blocking appends. Every CHECKPOINT_EVERY points the decoder
+ * state is saved, letting a range query start near its first point instead of at the beginning.
+ * Each series is persisted to history/&lt;configKey&gt;.bin by appending the bytes added since the last flush.
+ */
+@Slf4j
+final class KcHistory
+{
+	/**
+	 * Receives decoded points in time order. gained is the KC change since the previous point (0 for the
+	 * first point of a series, which is only a baseline).
+	 */
+	interface PointVisitor
+	{
+		void visit(long epochSecond, int kc, int gained);
+	}
+
+	static final String DIR = "history";
+
+	private static final int CHECKPOINT_EVERY = 512;
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+
+	private final Path dir;
+	private final Series[] series = new Series[BOSSES.length];
+
+	KcHistory(File baseDir)
+	{
+		this.dir = baseDir.toPath().resolve(DIR);
+		for (int i = 0; i < series.length; i++)
+		{
+			series[i] = new Series();
+		}
+	}
+
+	/**
+	 * Reads every series file, rebuilding the append state and checkpoints. A point torn by a crash
+	 * is cut off the end of its file.
+	 */
+	void load()
+	{
+		long start = System.nanoTime();
+		long points = 0;
+		long bytes = 0;
+		for (BossDefinition boss : BOSSES)
+		{
+			Series s = series[boss.ordinal()];
+			Path file = dir.resolve(boss.configKey + ".bin");
+			try
+			{
+				byte[] data = Files.exists(file) ? Files.readAllBytes(file) : new byte[0];
+				int valid;
+				synchronized (s)
+				{
+					valid = s.rebuild(data);
+					points += s.count;
+				}
+				if (valid < data.length)
+				{
+					log.debug("Cutting {} bytes of torn history from {}", data.length - valid, file);
+					try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE))
+					{
+						ch.truncate(valid);
+					}
+				}
+				bytes += valid;
+			}
+			catch (IOException e)
+			{
+				log.warn("Unable to read KC history {}", file, e);
+			}
+		}
+
+		log.debug("Loaded {} KC history points ({} bytes) in {}us", points, bytes, (System.nanoTime() - start) / 1000);
+	}
+
+	/**
+	 * Appends a KC reading. Timestamps going backwards (clock changes) are clamped to the previous point.
+	 */
+	void record(BossDefinition boss, long epochSecond, int kc)
+	{
+		Series s = series[boss.ordinal()];
+		synchronized (s)
+		{
+			s.append(epochSecond, kc);
+		}
+	}
+
+	/**
+	 * Streams every point of the boss with from &lt;= time &lt; to, oldest first.
+	 */
+	void scan(BossDefinition boss, long from, long to, PointVisitor visitor)
+	{
+		Series s = series[boss.ordinal()];
+		byte[] data;
+		int length;
+		int offset;
+		long time;
+		long delta;
+		int kc;
+		boolean first;
+		synchronized (s)
+		{
+			data = s.data;
+			length = s.length;
+			if (s.count == 0)
+			{
+				return;
+			}
+			int cp = s.checkpointBefore(from);
+			offset = s.cpOffsets[cp];
+			time = s.cpTime[cp];
+			delta = s.cpDelta[cp];
+			kc = s.cpKc[cp];
+			first = cp == 0;
+		}
+
+		int[] pos = {offset};
+		while (pos[0] < length)
+		{
+			delta += unzigzag(readVarint(data, pos, length));
+			time += delta;
+			int value = kc + (int) unzigzag(readVarint(data, pos, length));
+
+			if (time >= to)
+			{
+				return;
+			}
+			if (time >= from)
+			{
+				visitor.visit(time, value, first ? 0 : value - kc);
+			}
+			kc = value;
+			first = false;
+		}
+	}
+
+	boolean hasPending()
+	{
+		for (BossDefinition boss : BOSSES)
+		{
+			Series s = series[boss.ordinal()];
+			synchronized (s)
+			{
+				if (s.length > s.persisted)
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Appends the bytes added to each series since the last flush to its file.
+	 */
+	synchronized void flush()
+	{
+		for (BossDefinition boss : BOSSES)
+		{
+			Series s = series[boss.ordinal()];
+			byte[] data;
+			int from;
+			int to;
+			synchronized (s)
+			{
+				data = s.data;
+				from = s.persisted;
+				to = s.length;
+			}
+			if (to == from)
+			{
+				continue;
+			}
+
+			Path file = dir.resolve(boss.configKey + ".bin");
+			try
+			{
+				Files.createDirectories(dir);
+				try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+				{
+					ByteBuffer buf = ByteBuffer.wrap(data, from, to - from);
+					while (buf.hasRemaining())
+					{
+						ch.write(buf);
+					}
+				}
+				synchronized (s)
+				{
+					s.persisted = to;
+				}
+			}
+			catch (IOException e)
+			{
+				log.warn("Unable to write KC history {}", file, e);
+				return;
+			}
+		}
+	}
+
+	/* ===================== ENCODING ===================== */
+
+	private static long zigzag(long v)
+	{
+		return (v << 1) ^ (v >> 63);
+	}
+
+	private static long unzigzag(long v)
+	{
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	/**
+	 * Reads a varint at pos[0], advancing it. Returns -1 and leaves pos past the end if the varint is
+	 * cut off by the end of the data.
+	 */
+	private static long readVarint(byte[] data, int[] pos, int length)
+	{
+		long value = 0;
+		int shift = 0;
+		while (pos[0] < length && shift < 64)
+		{
+			byte b = data[pos[0]++];
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0)
+			{
+				return value;
+			}
+			shift += 7;
+		}
+		pos[0] = length + 1;
+		return -1;
+	}
+
+	/**
+	 * One boss's encoded points plus the state needed to append the next one.
+	 */
+	private static final class Series
+	{
+		private byte[] data = new byte[32];
+		private int length;
+		private int persisted;
+
+		private long count;
+		private long lastTime;
+		private long lastDelta;
+		private int lastKc;
+
+		// Decoder state before points 0, CHECKPOINT_EVERY, 2 * CHECKPOINT_EVERY, ...
+		private int[] cpOffsets = new int[4];
+		private long[] cpTime = new long[4];
+		private long[] cpDelta = new long[4];
+		private int[] cpKc = new int[4];
+		private int cpCount;
+
+		void append(long time, int kc)
+		{
+			time = Math.max(time, lastTime);
+			if (count % CHECKPOINT_EVERY == 0)
+			{
+				checkpoint(length);
+			}
+
+			long delta = time - lastTime;
+			ensure(20);
+			length = BossStateCodec.writeVarint(data, length, zigzag(delta - lastDelta));
+			length = BossStateCodec.writeVarint(data, length, zigzag((long) kc - lastKc));
+
+			lastDelta = delta;
+			lastTime = time;
+			lastKc = kc;
+			count++;
+		}
+
+		/**
+		 * Replaces the series with the encoded points. Returns how many bytes held whole points.
+		 */
+		int rebuild(byte[] encoded)
+		{
+			count = 0;
+			lastTime = 0;
+			lastDelta = 0;
+			lastKc = 0;
+			cpCount = 0;
+
+			int[] pos = {0};
+			int valid = 0;
+			while (pos[0] < encoded.length)
+			{
+				long dod = readVarint(encoded, pos, encoded.length);
+				long dkc = readVarint(encoded, pos, encoded.length);
+				if (pos[0] > encoded.length)
+				{
+					break;
+				}
+
+				if (count % CHECKPOINT_EVERY == 0)
+				{
+					checkpoint(valid);
+				}
+				lastDelta += unzigzag(dod);
+				lastTime += lastDelta;
+				lastKc += (int) unzigzag(dkc);
+				count++;
+				valid = pos[0];
+			}
+
+			data = Arrays.copyOf(encoded, Math.max(32, valid + valid / 2));
+			length = valid;
+			persisted = valid;
+			return valid;
+		}
+
+		/**
+		 * Index of the last checkpoint whose state precedes every point at or after from.
+		 */
+		int checkpointBefore(long from)
+		{
+			int lo = 0;
+			int hi = cpCount - 1;
+			while (lo < hi)
+			{
+				int mid = (lo + hi + 1) >>> 1;
+				if (cpTime[mid] < from)
+				{
+					lo = mid;
+				}
+				else
+				{
+					hi = mid - 1;
+				}
+			}
+			return lo;
+		}
+
+		private void checkpoint(int offset)
+		{
+			if (cpCount == cpOffsets.length)
+			{
+				int n = cpCount * 2;
+				cpOffsets = Arrays.copyOf(cpOffsets, n);
+				cpTime = Arrays.copyOf(cpTime, n);
+				cpDelta = Arrays.copyOf(cpDelta, n);
+				cpKc = Arrays.copyOf(cpKc, n);
+			}
+			cpOffsets[cpCount] = offset;
+			cpTime[cpCount] = lastTime;
+			cpDelta[cpCount] = lastDelta;
+			cpKc[cpCount] = lastKc;
+			cpCount++;
+		}
+
+		private void ensure(int extra)
+		{
+			if (length + extra > data.length)
+			{
+				data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+			}
+		}
+	}
+}
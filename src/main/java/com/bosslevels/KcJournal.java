@@ -0,0 +1,339 @@
+package com.bosslevels;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only local journal of every KC change, kept next to the config so a crash between config
+ * flushes loses nothing. Each change is one fixed-width record:
+ * <pre>
+ *     [timestamp millis: 8][stable boss id: 2][source: 1][reserved: 1][kc: 4]
+ * </pre>
+ * Appends only fill an in-memory buffer; flush() writes it to the journal file with one channel write.
+ * Once the journal holds COMPACT_RECORDS records it is folded into a snapshot (the latest record per
+ * boss, written to a temp file and atomically renamed over the old one) and truncated, so startup
+ * replays at most one snapshot plus a bounded tail no matter how many kills have been logged.
+ * Boss ids are BossStateCodec's stable ids, so reordering the enum doesn't corrupt old files.
+ */
+@Slf4j
+final class KcJournal
+{
+	enum Source
+	{
+		CHAT,
+		HISCORES
+	}
+
+	static final int RECORD_SIZE = 16;
+	static final int COMPACT_RECORDS = 8192;
+
+	static final String JOURNAL_FILE = "kc.journal";
+	static final String SNAPSHOT_FILE = "kc.snapshot";
+
+	private static final int SNAPSHOT_MAGIC = 0x424c4b53;
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final int SNAPSHOT_HEADER = 12;
+
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+	private static final Source[] SOURCES = Source.values();
+
+	private final Path journalPath;
+	private final Path snapshotPath;
+
+	// Latest record per boss (by ordinal), replayed on open and kept current by append()
+	private final long[] time = new long[BOSSES.length];
+	private final int[] kc = new int[BOSSES.length];
+	private final byte[] source = new byte[BOSSES.length];
+
+	private ByteBuffer pending = ByteBuffer.allocate(RECORD_SIZE * 64);
+	private FileChannel channel;
+	private long fileRecords;
+
+	KcJournal(File dir)
+	{
+		this.journalPath = dir.toPath().resolve(JOURNAL_FILE);
+		this.snapshotPath = dir.toPath().resolve(SNAPSHOT_FILE);
+		Arrays.fill(kc, -1);
+	}
+
+	/**
+	 * Replays snapshot + journal into memory and opens the journal for appending. A torn record left
+	 * at the end of the journal by a crash is cut off; a garbage record is skipped and the replay goes
+	 * on past it. On I/O errors the journal stays memory-only.
+	 */
+	synchronized void open()
+	{
+		long start = System.nanoTime();
+		Arrays.fill(kc, -1);
+		Arrays.fill(time, 0);
+		int replayed = 0;
+
+		try
+		{
+			Files.createDirectories(journalPath.getParent());
+			replayed += replaySnapshot();
+
+			channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			long size = channel.size();
+			long whole = size / RECORD_SIZE;
+			if (whole > 0)
+			{
+				// A plain read, not a mapping: a file that is still mapped can't be truncated on Windows
+				ByteBuffer buf = ByteBuffer.allocate((int) (whole * RECORD_SIZE));
+				while (buf.hasRemaining())
+				{
+					if (channel.read(buf, buf.position()) < 0)
+					{
+						break;
+					}
+				}
+				buf.flip();
+				replayed += replayRecords(buf, buf.remaining() / RECORD_SIZE);
+			}
+			if (whole * RECORD_SIZE != size)
+			{
+				log.debug("Cutting {} bytes of torn journal tail", size - whole * RECORD_SIZE);
+				channel.truncate(whole * RECORD_SIZE);
+			}
+			channel.position(whole * RECORD_SIZE);
+			fileRecords = whole;
+		}
+		catch (IOException e)
+		{
+			log.warn("KC journal unavailable, continuing without it", e);
+			closeQuietly();
+		}
+
+		log.debug("Replayed {} KC records ({} in journal tail) in {}us", replayed, fileRecords, (System.nanoTime() - start) / 1000);
+	}
+
+	/**
+	 * Latest journaled KC for the boss, or -1 if none.
+	 */
+	synchronized int getKc(BossDefinition boss)
+	{
+		return kc[boss.ordinal()];
+	}
+
+	/**
+	 * Records a KC change in memory; it reaches disk on the next flush().
+	 */
+	synchronized void append(BossDefinition boss, int value, Source src, long timeMillis)
+	{
+		int i = boss.ordinal();
+		kc[i] = value;
+		time[i] = timeMillis;
+		source[i] = (byte) src.ordinal();
+
+		if (pending.remaining() < RECORD_SIZE)
+		{
+			ByteBuffer bigger = ByteBuffer.allocate(pending.capacity() * 2);
+			pending.flip();
+			bigger.put(pending);
+			pending = bigger;
+		}
+		writeRecord(pending, i);
+	}
+
+	synchronized boolean hasPending()
+	{
+		return pending.position() > 0;
+	}
+
+	/**
+	 * Writes buffered records to the journal, compacting it into the snapshot once it is long enough.
+	 */
+	synchronized void flush()
+	{
+		if (pending.position() == 0)
+		{
+			return;
+		}
+		if (channel == null)
+		{
+			// Memory-only (open failed or never called): drop the records, the state is still current
+			pending.clear();
+			return;
+		}
+
+		try
+		{
+			pending.flip();
+			int records = pending.remaining() / RECORD_SIZE;
+			while (pending.hasRemaining())
+			{
+				channel.write(pending);
+			}
+			fileRecords += records;
+
+			if (fileRecords >= COMPACT_RECORDS)
+			{
+				compact();
+			}
+		}
+		catch (IOException e)
+		{
+			log.warn("KC journal write failed, continuing without it", e);
+			closeQuietly();
+		}
+		finally
+		{
+			pending.clear();
+		}
+	}
+
+	/**
+	 * Flushes and closes the journal file.
+	 */
+	synchronized void close()
+	{
+		flush();
+		closeQuietly();
+	}
+
+	/**
+	 * Writes the latest record per boss to the snapshot and empties the journal. If we die between the
+	 * rename and the truncate, the old journal replays on top of a snapshot it already agrees with.
+	 */
+	private void compact() throws IOException
+	{
+		long start = System.nanoTime();
+
+		int count = 0;
+		for (int i = 0; i < BOSSES.length; i++)
+		{
+			if (kc[i] >= 0)
+			{
+				count++;
+			}
+		}
+
+		ByteBuffer buf = ByteBuffer.allocate(SNAPSHOT_HEADER + count * RECORD_SIZE);
+		buf.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(count);
+		for (int i = 0; i < BOSSES.length; i++)
+		{
+			if (kc[i] >= 0)
+			{
+				writeRecord(buf, i);
+			}
+		}
+		buf.flip();
+
+		Path tmp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			while (buf.hasRemaining())
+			{
+				out.write(buf);
+			}
+			out.force(true);
+		}
+		Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		channel.truncate(0);
+		channel.position(0);
+		log.debug("Compacted {} journal records into a {} boss snapshot in {}us", fileRecords, count, (System.nanoTime() - start) / 1000);
+		fileRecords = 0;
+	}
+
+	private int replaySnapshot() throws IOException
+	{
+		if (!Files.exists(snapshotPath))
+		{
+			return 0;
+		}
+
+		ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+		if (buf.remaining() < SNAPSHOT_HEADER || buf.getInt() != SNAPSHOT_MAGIC || buf.getInt() != SNAPSHOT_VERSION)
+		{
+			log.warn("Ignoring unreadable KC snapshot {}", snapshotPath);
+			return 0;
+		}
+
+		int count = buf.getInt();
+		return replayRecords(buf, Math.min(count, buf.remaining() / RECORD_SIZE));
+	}
+
+	/**
+	 * Applies that many whole records from the buffer, skipping garbage ones. Returns how many applied.
+	 */
+	private int replayRecords(ByteBuffer buf, int records)
+	{
+		int applied = 0;
+		for (int r = 0; r < records; r++)
+		{
+			if (readRecord(buf))
+			{
+				applied++;
+			}
+		}
+		if (applied < records)
+		{
+			log.warn("Skipped {} unreadable KC records", records - applied);
+		}
+		return applied;
+	}
+
+	private void writeRecord(ByteBuffer buf, int ordinal)
+	{
+		buf.putLong(time[ordinal])
+				.putShort((short) BossStateCodec.stableId(BOSSES[ordinal]))
+				.put(source[ordinal])
+				.put((byte) 0)
+				.putInt(kc[ordinal]);
+	}
+
+	/**
+	 * Reads one record and applies it to the in-memory state. Returns false if the record is garbage.
+	 * Records for bosses this build doesn't know are read but not applied.
+	 */
+	private boolean readRecord(ByteBuffer buf)
+	{
+		long t = buf.getLong();
+		int id = buf.getShort() & 0xFFFF;
+		byte src = buf.get();
+		buf.get();
+		int value = buf.getInt();
+
+		if (t <= 0 || value < 0 || src < 0 || src >= SOURCES.length)
+		{
+			return false;
+		}
+
+		BossDefinition boss = BossStateCodec.bossForId(id);
+		if (boss != null)
+		{
+			int i = boss.ordinal();
+			kc[i] = value;
+			time[i] = t;
+			source[i] = src;
+		}
+		return true;
+	}
+
+	private void closeQuietly()
+	{
+		if (channel == null)
+		{
+			return;
+		}
+
+		try
+		{
+			channel.close();
+		}
+		catch (IOException e)
+		{
+			log.debug("Failed to close KC journal", e);
+		}
+		channel = null;
+	}
+}
@@ -0,0 +1,177 @@
+package com.bosslevels;
+
+/**
+ * Hand-rolled parser for the raw (still tagged) game message "Your X kill count is: N.".
+ * Cheap prefix/suffix checks reject almost every other game message before any scanning, and a
+ * match is reported as a span of the raw string plus the count, so nothing is allocated per message.
+ * Not thread-safe: the result fields are overwritten by every call.
+ */
+final class KcMessageParser
+{
+	private static final String PREFIX = "Your ";
+	private static final String KC_INFIX = " kill count is: ";
+
+	// Shortest possible match: "Your " + 1 char name + infix + 1 digit + "."
+	private static final int MIN_LENGTH = PREFIX.length() + 1 + KC_INFIX.length() + 2;
+
+	private int nameStart;
+	private int nameEnd;
+	private int count;
+
+	/**
+	 * Returns true if the message is a KC line; the boss name is then raw[nameStart(), nameEnd()).
+	 */
+	boolean parse(String raw)
+	{
+		if (raw == null || raw.length() < MIN_LENGTH)
+		{
+			return false;
+		}
+
+		int start = skipTags(raw, 0);
+		if (!raw.startsWith(PREFIX, start))
+		{
+			return false;
+		}
+
+		int end = trimEnd(raw);
+		if (end <= start || raw.charAt(end - 1) != '.')
+		{
+			return false;
+		}
+
+		int infix = raw.indexOf(KC_INFIX, start + PREFIX.length());
+		if (infix < 0)
+		{
+			return false;
+		}
+
+		int s = start + PREFIX.length();
+		int e = infix;
+		while (s < e && raw.charAt(s) == ' ')
+		{
+			s++;
+		}
+		while (e > s && raw.charAt(e - 1) == ' ')
+		{
+			e--;
+		}
+		if (s == e)
+		{
+			return false;
+		}
+
+		int n = parseCount(raw, infix + KC_INFIX.length(), end - 1);
+		if (n < 0)
+		{
+			return false;
+		}
+
+		nameStart = s;
+		nameEnd = e;
+		count = n;
+		return true;
+	}
+
+	int nameStart()
+	{
+		return nameStart;
+	}
+
+	int nameEnd()
+	{
+		return nameEnd;
+	}
+
+	int count()
+	{
+		return count;
+	}
+
+	/**
+	 * Parses digits (commas and tags allowed, e.g. "<col=ff0000>1,234</col>") in raw[from, to).
+	 * Returns -1 if anything else is found or there are no digits.
+	 */
+	static int parseCount(String raw, int from, int to)
+	{
+		int value = 0;
+		int digits = 0;
+		int i = from;
+		while (i < to)
+		{
+			char c = raw.charAt(i);
+			if (c >= '0' && c <= '9')
+			{
+				if (value > (Integer.MAX_VALUE - 9) / 10)
+				{
+					return -1;
+				}
+				value = value * 10 + (c - '0');
+				digits++;
+				i++;
+			}
+			else if (c == ',')
+			{
+				i++;
+			}
+			else if (c == '<')
+			{
+				int close = raw.indexOf('>', i);
+				if (close < 0 || close >= to)
+				{
+					return -1;
+				}
+				i = close + 1;
+			}
+			else
+			{
+				return -1;
+			}
+		}
+		return digits == 0 ? -1 : value;
+	}
+
+	static int skipTags(String raw, int i)
+	{
+		while (i < raw.length() && raw.charAt(i) == '<')
+		{
+			int close = raw.indexOf('>', i);
+			if (close < 0)
+			{
+				return i;
+			}
+			i = close + 1;
+		}
+		return i;
+	}
+
+	/**
+	 * End of the message with trailing whitespace and tags removed.
+	 */
+	static int trimEnd(String raw)
+	{
+		int end = raw.length();
+		while (end > 0)
+		{
+			char c = raw.charAt(end - 1);
+			if (c == ' ')
+			{
+				end--;
+			}
+			else if (c == '>')
+			{
+				int open = raw.lastIndexOf('<', end - 1);
+				if (open < 0)
+				{
+					return end;
+				}
+				end = open;
+			}
+			else
+			{
+				return end;
+			}
+		}
+		return end;
+	}
+}
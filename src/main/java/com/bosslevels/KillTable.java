@@ -0,0 +1,84 @@
+package com.bosslevels;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Inverse of the XP curve for one boss: the exact KC at which each level and each milestone is reached.
+ * Both tables are built once from XpCurve and the boss's xpPerKill, so "kills to X" is a subtraction.
+ */
+final class KillTable
+{
+	private static final Map<BossDefinition, KillTable> TABLES = buildAll();
+
+	// kcForLevel[level] = first KC whose xp reaches that level; index 0 unused
+	private final int[] kcForLevel;
+
+	// kcForMilestone[i] = first KC reaching MilestoneIndex.level(i)
+	private final int[] kcForMilestone;
+
+	private KillTable(int[] kcForLevel, int[] kcForMilestone)
+	{
+		this.kcForLevel = kcForLevel;
+		this.kcForMilestone = kcForMilestone;
+	}
+
+	static KillTable of(BossDefinition boss)
+	{
+		return TABLES.get(boss);
+	}
+
+	/**
+	 * KC needed to reach the given level (clamped to 1..MAX_VIRTUAL_LEVEL).
+	 */
+	int kcForLevel(int level)
+	{
+		return kcForLevel[Math.max(1, Math.min(level, XpCurve.MAX_VIRTUAL_LEVEL))];
+	}
+
+	/**
+	 * Kills still needed to reach the level, or 0 if already there.
+	 */
+	int killsToLevel(int level, int kc)
+	{
+		return Math.max(0, kcForLevel(level) - kc);
+	}
+
+	/**
+	 * Kills still needed to reach the milestone at index i of MilestoneIndex.of(boss), or 0 if already there.
+	 */
+	int killsToMilestone(int milestone, int kc)
+	{
+		return Math.max(0, kcForMilestone[milestone] - kc);
+	}
+
+	private static Map<BossDefinition, KillTable> buildAll()
+	{
+		Map<BossDefinition, KillTable> out = new EnumMap<>(BossDefinition.class);
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			int perKill = Math.max(1, boss.xpPerKill);
+
+			int[] byLevel = new int[XpCurve.MAX_VIRTUAL_LEVEL + 1];
+			for (int level = 1; level <= XpCurve.MAX_VIRTUAL_LEVEL; level++)
+			{
+				byLevel[level] = ceilDiv(XpCurve.xpForLevel(level), perKill);
+			}
+
+			MilestoneIndex milestones = MilestoneIndex.of(boss);
+			int[] byMilestone = new int[milestones.size()];
+			for (int i = 0; i < byMilestone.length; i++)
+			{
+				byMilestone[i] = byLevel[Math.max(1, Math.min(milestones.level(i), XpCurve.MAX_VIRTUAL_LEVEL))];
+			}
+
+			out.put(boss, new KillTable(byLevel, byMilestone));
+		}
+		return out;
+	}
+
+	private static int ceilDiv(int xp, int perKill)
+	{
+		return (xp + perKill - 1) / perKill;
+	}
+}
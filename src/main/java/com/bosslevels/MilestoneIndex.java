@@ -0,0 +1,233 @@
+package com.bosslevels;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Milestones of one boss, parsed once from the BossDefinition text into parallel arrays sorted by level.
+ * Range queries are binary searches over the level array and return index bounds, so callers can walk
+ * the matching milestones without building lists:
+ * <ul>
+ *     <li>next milestone at level L: firstAbove(L)</li>
+ *     <li>crossed by a level-up from A to B: [firstAbove(A), firstAbove(B))</li>
+ * </ul>
+ */
+final class MilestoneIndex
+{
+	enum Kind
+	{
+		FIFTY_PERCENT("You had a 50% chance to ", "50%"),
+		ON_RATE("You are on rate to ", "on-rate"),
+		NINETY_NINE_PERCENT("You had a 99% chance to ", "99%"),
+		GUARANTEED("You had a 100% chance to ", "100%"),
+		// Anything that doesn't follow the usual wording; the whole sentence is kept as the goal.
+		OTHER("", "");
+
+		final String phrase;
+		final String label;
+
+		Kind(String phrase, String label)
+		{
+			this.phrase = phrase;
+			this.label = label;
+		}
+	}
+
+	private static final String LEVEL_PREFIX = "Level ";
+	private static final String OBTAIN = "obtain ";
+	private static final String[] ARTICLES = {"a ", "an ", "the ", "The "};
+
+	private static final Map<BossDefinition, MilestoneIndex> INDEXES = buildAll();
+
+	private final int[] levels;
+	private final Kind[] kinds;
+	private final String[] goals;
+	private final String[] items;
+	private final String text;
+
+	private MilestoneIndex(int[] levels, Kind[] kinds, String[] goals, String[] items)
+	{
+		this.levels = levels;
+		this.kinds = kinds;
+		this.goals = goals;
+		this.items = items;
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < levels.length; i++)
+		{
+			if (i > 0)
+			{
+				sb.append("\n\n");
+			}
+			sb.append(describe(i));
+		}
+		this.text = sb.toString().trim();
+	}
+
+	static MilestoneIndex of(BossDefinition boss)
+	{
+		return INDEXES.get(boss);
+	}
+
+	int size()
+	{
+		return levels.length;
+	}
+
+	int level(int i)
+	{
+		return levels[i];
+	}
+
+	Kind kind(int i)
+	{
+		return kinds[i];
+	}
+
+	/**
+	 * Short item or goal name, e.g. "Ikkle hydra" or "Green Log Alchemical Hydra".
+	 */
+	String item(int i)
+	{
+		return items[i];
+	}
+
+	/**
+	 * Full sentence as written in the definition, e.g. "Level 83: You are on rate to obtain Ikkle hydra".
+	 */
+	String describe(int i)
+	{
+		return LEVEL_PREFIX + levels[i] + ": " + kinds[i].phrase + goals[i];
+	}
+
+	/**
+	 * All milestones joined for the detail view, built once.
+	 */
+	String text()
+	{
+		return text;
+	}
+
+	/**
+	 * Index of the first milestone strictly above the given level, or size() if there is none.
+	 * This is the "next milestone" for a player currently at that level.
+	 */
+	int firstAbove(int level)
+	{
+		int lo = 0;
+		int hi = levels.length;
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (levels[mid] <= level)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/* ===================== PARSING ===================== */
+
+	private static Map<BossDefinition, MilestoneIndex> buildAll()
+	{
+		Map<BossDefinition, MilestoneIndex> out = new EnumMap<>(BossDefinition.class);
+		Map<String, String> pool = new HashMap<>();
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			out.put(boss, parse(boss.milestones, pool));
+		}
+		return out;
+	}
+
+	private static MilestoneIndex parse(List<String> lines, Map<String, String> pool)
+	{
+		int n = lines.size();
+		Integer[] order = new Integer[n];
+		int[] parsedLevels = new int[n];
+		for (int i = 0; i < n; i++)
+		{
+			order[i] = i;
+			parsedLevels[i] = parseLevel(lines.get(i));
+		}
+
+		// Stable, so milestones on the same level keep their written order
+		Arrays.sort(order, (a, b) -> Integer.compare(parsedLevels[a], parsedLevels[b]));
+
+		int[] levels = new int[n];
+		Kind[] kinds = new Kind[n];
+		String[] goals = new String[n];
+		String[] items = new String[n];
+
+		for (int i = 0; i < n; i++)
+		{
+			String line = lines.get(order[i]);
+			levels[i] = parsedLevels[order[i]];
+
+			int colon = line.indexOf(": ");
+			String sentence = (line.startsWith(LEVEL_PREFIX) && colon >= 0) ? line.substring(colon + 2) : line;
+
+			Kind kind = Kind.OTHER;
+			for (Kind k : Kind.values())
+			{
+				if (k != Kind.OTHER && sentence.startsWith(k.phrase))
+				{
+					kind = k;
+					break;
+				}
+			}
+
+			String goal = sentence.substring(kind.phrase.length());
+			kinds[i] = kind;
+			goals[i] = pool.computeIfAbsent(goal, g -> g);
+			items[i] = pool.computeIfAbsent(itemName(goal), g -> g);
+		}
+
+		return new MilestoneIndex(levels, kinds, goals, items);
+	}
+
+	private static int parseLevel(String line)
+	{
+		if (!line.startsWith(LEVEL_PREFIX))
+		{
+			return 0;
+		}
+
+		int level = 0;
+		for (int i = LEVEL_PREFIX.length(); i < line.length(); i++)
+		{
+			char c = line.charAt(i);
+			if (c < '0' || c > '9')
+			{
+				break;
+			}
+			level = level * 10 + (c - '0');
+		}
+		return level;
+	}
+
+	private static String itemName(String goal)
+	{
+		if (!goal.startsWith(OBTAIN))
+		{
+			return goal;
+		}
+
+		String item = goal.substring(OBTAIN.length());
+		for (String article : ARTICLES)
+		{
+			if (item.startsWith(article))
+			{
+				return item.substring(article.length());
+			}
+		}
+		return item;
+	}
+}
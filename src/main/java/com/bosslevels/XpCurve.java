@@ -0,0 +1,78 @@
+package com.bosslevels;
+
+/**
+ * OSRS experience curve, precomputed once into a threshold table that runs past 99
+ * up to the virtual level cap. XP for a level is an array read; level for XP is a
+ * binary search over the table, so every lookup costs the same fixed handful of probes.
+ */
+final class XpCurve
+{
+	static final int MAX_LEVEL = 99;
+	static final int MAX_VIRTUAL_LEVEL = 126;
+	static final int MAX_XP = 200_000_000;
+
+	// XP_TABLE[level] = total xp needed to reach that level. Index 0 is unused, XP_TABLE[1] = 0.
+	private static final int[] XP_TABLE = buildTable(MAX_VIRTUAL_LEVEL);
+
+	private XpCurve()
+	{
+	}
+
+	/**
+	 * Total xp needed to reach the given level (clamped to 1..MAX_VIRTUAL_LEVEL).
+	 */
+	static int xpForLevel(int level)
+	{
+		if (level <= 1)
+		{
+			return 0;
+		}
+		return XP_TABLE[Math.min(level, MAX_VIRTUAL_LEVEL)];
+	}
+
+	/**
+	 * Xp needed for the level after this one, or the cap's threshold once maxed.
+	 */
+	static int xpForNextLevel(int level, int maxLevel)
+	{
+		return xpForLevel(Math.min(level + 1, maxLevel));
+	}
+
+	/**
+	 * Highest level up to maxLevel whose threshold is at or below the given xp.
+	 */
+	static int levelForXp(long xp, int maxLevel)
+	{
+		int lo = 1;
+		int hi = Math.max(1, Math.min(maxLevel, MAX_VIRTUAL_LEVEL));
+		while (lo < hi)
+		{
+			int mid = (lo + hi + 1) >>> 1;
+			if (XP_TABLE[mid] <= xp)
+			{
+				lo = mid;
+			}
+			else
+			{
+				hi = mid - 1;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Same running sum as the classic per-call formula, so every entry matches it exactly.
+	 */
+	private static int[] buildTable(int maxLevel)
+	{
+		int[] table = new int[maxLevel + 1];
+		double points = 0;
+		for (int level = 2; level <= maxLevel; level++)
+		{
+			int i = level - 1;
+			points += Math.floor(i + 300.0 * Math.pow(2.0, i / 7.0));
+			table[level] = (int) Math.floor(points / 4.0);
+		}
+		return table;
+	}
+}
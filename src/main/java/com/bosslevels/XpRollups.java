@@ -0,0 +1,271 @@
+package com.bosslevels;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Boss XP and kills gained per local day and week, kept in fixed rings of buckets so that
+ * "today" or "this week" is one array read instead of a scan over raw events. Each ring is one flat
+ * primitive array indexed by ordinal * buckets + (key % buckets); a slot whose stored key doesn't match
+ * is stale and reset on the next write, so add() is O(1) and old buckets age out on their own.
+ * <p>
+ * Keys are local epoch days and Monday-based weeks in the zone given at construction.
+ */
+final class XpRollups
+{
+	enum Resolution
+	{
+		DAY(35),
+		WEEK(12);
+
+		final int buckets;
+
+		Resolution(int buckets)
+		{
+			this.buckets = buckets;
+		}
+	}
+
+	private static final int VERSION = 2;
+
+	// Version 1 also kept 48 hourly buckets per boss, ahead of the days; they are skipped on decode
+	private static final int VERSION_WITH_HOURS = 1;
+	private static final long EMPTY = Long.MIN_VALUE;
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+	private static final Resolution[] RESOLUTIONS = Resolution.values();
+
+	private final ZoneId zone;
+
+	// Indexed by Resolution ordinal, then ordinal * buckets + slot
+	private final long[][] keys = new long[RESOLUTIONS.length][];
+	private final long[][] xp = new long[RESOLUTIONS.length][];
+	private final int[][] kills = new int[RESOLUTIONS.length][];
+
+	XpRollups(ZoneId zone)
+	{
+		this.zone = zone;
+		for (Resolution r : RESOLUTIONS)
+		{
+			int size = BOSSES.length * r.buckets;
+			keys[r.ordinal()] = new long[size];
+			xp[r.ordinal()] = new long[size];
+			kills[r.ordinal()] = new int[size];
+		}
+		clear();
+	}
+
+	synchronized void clear()
+	{
+		for (Resolution r : RESOLUTIONS)
+		{
+			Arrays.fill(keys[r.ordinal()], EMPTY);
+			Arrays.fill(xp[r.ordinal()], 0);
+			Arrays.fill(kills[r.ordinal()], 0);
+		}
+	}
+
+	/**
+	 * Bucket key of the instant at the given resolution.
+	 */
+	long key(Resolution r, long epochSecond)
+	{
+		long local = epochSecond + zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+		long day = Math.floorDiv(local, 86400);
+		// Epoch day 0 was a Thursday
+		return r == Resolution.DAY ? day : Math.floorDiv(day + 3, 7);
+	}
+
+	/**
+	 * Adds a gain to the boss's current day and week.
+	 */
+	synchronized void add(BossDefinition boss, long epochSecond, long xpGained, int killsGained)
+	{
+		for (Resolution r : RESOLUTIONS)
+		{
+			add(r, boss.ordinal(), key(r, epochSecond), xpGained, killsGained);
+		}
+	}
+
+	synchronized long xp(BossDefinition boss, Resolution r, long key)
+	{
+		int i = slot(r, boss.ordinal(), key);
+		return keys[r.ordinal()][i] == key ? xp[r.ordinal()][i] : 0;
+	}
+
+	synchronized int kills(BossDefinition boss, Resolution r, long key)
+	{
+		int i = slot(r, boss.ordinal(), key);
+		return keys[r.ordinal()][i] == key ? kills[r.ordinal()][i] : 0;
+	}
+
+	long xpToday(BossDefinition boss, long nowSecond)
+	{
+		return xp(boss, Resolution.DAY, key(Resolution.DAY, nowSecond));
+	}
+
+	long xpThisWeek(BossDefinition boss, long nowSecond)
+	{
+		return xp(boss, Resolution.WEEK, key(Resolution.WEEK, nowSecond));
+	}
+
+	/**
+	 * Kills for each of the last `days` local days, oldest first, ending today. At most DAY.buckets days.
+	 */
+	synchronized int[] killsPerDay(BossDefinition boss, long nowSecond, int days)
+	{
+		days = Math.min(days, Resolution.DAY.buckets);
+		long today = key(Resolution.DAY, nowSecond);
+		int[] out = new int[days];
+		for (int d = 0; d < days; d++)
+		{
+			out[d] = kills(boss, Resolution.DAY, today - (days - 1 - d));
+		}
+		return out;
+	}
+
+	/**
+	 * Encodes every bucket still inside its ring's window as of nowSecond.
+	 */
+	synchronized String encode(long nowSecond)
+	{
+		byte[] buf = new byte[64];
+		int pos = BossStateCodec.writeVarint(buf, 0, VERSION);
+		pos = BossStateCodec.writeVarint(buf, pos, BOSSES.length);
+		for (BossDefinition boss : BOSSES)
+		{
+			buf = ensure(buf, pos, 5);
+			pos = BossStateCodec.writeVarint(buf, pos, BossStateCodec.stableId(boss));
+			for (Resolution r : RESOLUTIONS)
+			{
+				long current = key(r, nowSecond);
+				int base = boss.ordinal() * r.buckets;
+				long[] k = keys[r.ordinal()];
+
+				int live = 0;
+				for (int s = 0; s < r.buckets; s++)
+				{
+					if (isLive(k[base + s], current, r))
+					{
+						live++;
+					}
+				}
+
+				buf = ensure(buf, pos, 5 + live * 25);
+				pos = BossStateCodec.writeVarint(buf, pos, live);
+				for (int s = 0; s < r.buckets; s++)
+				{
+					if (isLive(k[base + s], current, r))
+					{
+						pos = BossStateCodec.writeVarint(buf, pos, k[base + s]);
+						pos = BossStateCodec.writeVarint(buf, pos, Math.max(0, xp[r.ordinal()][base + s]));
+						pos = BossStateCodec.writeVarint(buf, pos, Math.max(0, kills[r.ordinal()][base + s]));
+					}
+				}
+			}
+		}
+		return Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(buf, pos));
+	}
+
+	/**
+	 * Replaces every bucket with the encoded ones. Returns false, leaving the rollups empty, if the
+	 * value isn't valid.
+	 */
+	synchronized boolean decode(String value)
+	{
+		clear();
+		if (value == null || value.isEmpty())
+		{
+			return false;
+		}
+
+		byte[] buf;
+		try
+		{
+			buf = Base64.getDecoder().decode(value);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return false;
+		}
+
+		BossStateCodec.Reader in = new BossStateCodec.Reader(buf);
+		long version = in.next();
+		if (version != VERSION && version != VERSION_WITH_HOURS)
+		{
+			return false;
+		}
+
+		long bosses = in.next();
+		for (long b = 0; b < bosses && in.ok; b++)
+		{
+			BossDefinition boss = BossStateCodec.bossForId((int) Math.min(in.next(), Integer.MAX_VALUE));
+			if (version == VERSION_WITH_HOURS)
+			{
+				long hours = in.next();
+				for (long n = 0; n < hours && in.ok; n++)
+				{
+					in.next();
+					in.next();
+					in.next();
+				}
+			}
+			for (Resolution r : RESOLUTIONS)
+			{
+				long live = in.next();
+				for (long n = 0; n < live && in.ok; n++)
+				{
+					long bucket = in.next();
+					long bucketXp = in.next();
+					int bucketKills = (int) Math.min(in.next(), Integer.MAX_VALUE);
+					if (boss != null)
+					{
+						add(r, boss.ordinal(), bucket, bucketXp, bucketKills);
+					}
+				}
+			}
+		}
+
+		if (!in.ok)
+		{
+			clear();
+			return false;
+		}
+		return true;
+	}
+
+	private void add(Resolution r, int ordinal, long key, long xpGained, int killsGained)
+	{
+		int i = slot(r, ordinal, key);
+		long[] k = keys[r.ordinal()];
+		if (k[i] != key)
+		{
+			if (k[i] != EMPTY && k[i] > key)
+			{
+				// Older than what the ring holds now; nowhere to put it
+				return;
+			}
+			k[i] = key;
+			xp[r.ordinal()][i] = 0;
+			kills[r.ordinal()][i] = 0;
+		}
+		xp[r.ordinal()][i] += xpGained;
+		kills[r.ordinal()][i] += killsGained;
+	}
+
+	private static int slot(Resolution r, int ordinal, long key)
+	{
+		return ordinal * r.buckets + (int) Math.floorMod(key, (long) r.buckets);
+	}
+
+	private static boolean isLive(long key, long current, Resolution r)
+	{
+		return key != EMPTY && key <= current && current - key < r.buckets;
+	}
+
+	private static byte[] ensure(byte[] buf, int pos, int extra)
+	{
+		return pos + extra <= buf.length ? buf : Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+	}
+}
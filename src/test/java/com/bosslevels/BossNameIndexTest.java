@@ -0,0 +1,99 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.util.Locale;
+import org.junit.Test;
+
+public class BossNameIndexTest
+{
+	@Test
+	public void everyBossResolvesInEverySpelling()
+	{
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			String name = boss.kcName;
+			String[] spellings = {
+					name,
+					name.toLowerCase(Locale.ROOT),
+					name.toUpperCase(Locale.ROOT),
+					name.replace(' ', '_'),
+					name.toUpperCase(Locale.ROOT).replace(' ', '_'),
+					"  " + name + " ",
+					boss.name(),
+					boss.hiscoreName,
+			};
+			for (String spelling : spellings)
+			{
+				assertSame(spelling, boss, BossNameIndex.find(spelling));
+			}
+		}
+	}
+
+	@Test
+	public void leadingTheIsOptional()
+	{
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			String name = boss.kcName;
+			String other = name.regionMatches(true, 0, "The ", 0, 4) ? name.substring(4) : "The " + name;
+			assertSame(other, boss, BossNameIndex.find(other));
+			assertSame(other, boss, BossNameIndex.find(other.toUpperCase(Locale.ROOT).replace(' ', '_')));
+		}
+	}
+
+	@Test
+	public void aliasesResolve()
+	{
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			for (String alias : boss.aliases)
+			{
+				assertSame(alias, boss, BossNameIndex.find(alias));
+			}
+		}
+	}
+
+	@Test
+	public void spanOfALongerStringResolvesWithoutASubstring()
+	{
+		String raw = "Your Alchemical Hydra kill count is: 5.";
+		assertSame(BossDefinition.ALCHEMICAL_HYDRA, BossNameIndex.find(raw, 5, 21));
+		assertNull(BossNameIndex.find(raw, 5, 20));
+		assertNull(BossNameIndex.find(raw, 4, 4));
+	}
+
+	@Test
+	public void namesNotInTheTableAreNotFound()
+	{
+		String[] unknown = {
+				null,
+				"",
+				"   ",
+				"the",
+				"The ",
+				"Vorkat",
+				"Vorkathh",
+				"Vork ath",
+				"Chambers of Xeric",
+				"Tombs of Amascut",
+				"Wintertodt",
+				"Zulrah kill count",
+				"Abyssal-Sire",
+				"AbyssalSire",
+		};
+		for (String name : unknown)
+		{
+			assertNull(String.valueOf(name), BossNameIndex.find(name));
+		}
+
+		// Every boss name with one character changed
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			String name = boss.kcName;
+			char last = name.charAt(name.length() - 1);
+			String changed = name.substring(0, name.length() - 1) + (last == 'q' ? 'x' : 'q');
+			assertNull(changed, BossNameIndex.find(changed));
+		}
+	}
+}
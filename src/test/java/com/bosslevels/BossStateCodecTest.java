@@ -0,0 +1,145 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import org.junit.Test;
+
+public class BossStateCodecTest
+{
+	private static final int BOSSES = BossDefinition.values().length;
+
+	private final long[] xp = new long[BOSSES];
+	private final int[] lastKc = new int[BOSSES];
+
+	private static String base64(byte[] bytes, int length)
+	{
+		return Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(bytes, length));
+	}
+
+	/**
+	 * Raw snapshot bytes from unsigned varints.
+	 */
+	private static String snapshot(long... values)
+	{
+		byte[] buf = new byte[values.length * 10];
+		int pos = 0;
+		for (long v : values)
+		{
+			pos = BossStateCodec.writeVarint(buf, pos, v);
+		}
+		return base64(buf, pos);
+	}
+
+	@Test
+	public void roundTrip()
+	{
+		Random random = new Random(7);
+		long[] inXp = new long[BOSSES];
+		int[] inKc = new int[BOSSES];
+		for (int i = 0; i < BOSSES; i++)
+		{
+			// Some bosses left at their defaults, some with XP but no KC seen, some huge
+			switch (random.nextInt(4))
+			{
+				case 0:
+					inKc[i] = -1;
+					break;
+				case 1:
+					inXp[i] = random.nextInt(1_000_000);
+					inKc[i] = -1;
+					break;
+				case 2:
+					inKc[i] = random.nextInt(5_000);
+					inXp[i] = inKc[i] * 900L;
+					break;
+				default:
+					inKc[i] = Integer.MAX_VALUE;
+					inXp[i] = Long.MAX_VALUE;
+			}
+		}
+
+		Arrays.fill(lastKc, 123);
+		assertTrue(BossStateCodec.decode(BossStateCodec.encode(inXp, inKc), xp, lastKc));
+		assertArrayEquals(inXp, xp);
+		assertArrayEquals(inKc, lastKc);
+	}
+
+	@Test
+	public void defaultsEncodeToAnEmptySnapshot()
+	{
+		Arrays.fill(lastKc, -1);
+		String encoded = BossStateCodec.encode(xp, lastKc);
+		assertEquals(snapshot(1, 0), encoded);
+
+		xp[0] = 5;
+		lastKc[0] = 5;
+		assertTrue(BossStateCodec.decode(encoded, xp, lastKc));
+		assertEquals(0, xp[0]);
+		assertEquals(-1, lastKc[0]);
+	}
+
+	@Test
+	public void truncatedInputIsRejectedAndLeavesTheStateAlone()
+	{
+		long[] inXp = new long[BOSSES];
+		int[] inKc = new int[BOSSES];
+		Arrays.fill(inXp, 1_234_567);
+		Arrays.fill(inKc, 1_371);
+		byte[] full = Base64.getDecoder().decode(BossStateCodec.encode(inXp, inKc));
+
+		for (int length = 0; length < full.length; length++)
+		{
+			Arrays.fill(xp, 9);
+			Arrays.fill(lastKc, 9);
+			assertFalse("length " + length, BossStateCodec.decode(base64(full, length), xp, lastKc));
+			assertEquals(9, xp[0]);
+			assertEquals(9, lastKc[BOSSES - 1]);
+		}
+	}
+
+	@Test
+	public void corruptInputIsRejected()
+	{
+		assertFalse(BossStateCodec.decode(null, xp, lastKc));
+		assertFalse(BossStateCodec.decode("", xp, lastKc));
+		assertFalse(BossStateCodec.decode("not base64!", xp, lastKc));
+
+		// Unknown version
+		assertFalse(BossStateCodec.decode(snapshot(2, 0), xp, lastKc));
+
+		// A varint that never ends
+		byte[] overlong = new byte[12];
+		Arrays.fill(overlong, (byte) 0xFF);
+		overlong[0] = 1;
+		assertFalse(BossStateCodec.decode(base64(overlong, overlong.length), xp, lastKc));
+	}
+
+	@Test
+	public void unknownIdsAreSkipped()
+	{
+		int id = BossStateCodec.stableId(BossDefinition.VORKATH);
+		Arrays.fill(lastKc, 9);
+		assertTrue(BossStateCodec.decode(snapshot(1, 2, 9_999, 5, 4, id, 900, 11), xp, lastKc));
+		assertEquals(900, xp[BossDefinition.VORKATH.ordinal()]);
+		assertEquals(10, lastKc[BossDefinition.VORKATH.ordinal()]);
+		assertEquals(-1, lastKc[BossDefinition.ZULRAH.ordinal()]);
+	}
+
+	@Test
+	public void stableIdsMapBothWays()
+	{
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			assertSame(boss, BossStateCodec.bossForId(BossStateCodec.stableId(boss)));
+		}
+		assertNull(BossStateCodec.bossForId(-1));
+		assertNull(BossStateCodec.bossForId(Integer.MAX_VALUE));
+	}
+}
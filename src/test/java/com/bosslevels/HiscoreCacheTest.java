@@ -0,0 +1,141 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreResult;
+import org.junit.Test;
+
+public class HiscoreCacheTest
+{
+	private static final long TTL = 10 * 60_000;
+
+	private long now = 1_000_000;
+
+	// Every request the prober made, left pending until the test completes it
+	private final List<CompletableFuture<HiscoreResult>> requests = new ArrayList<>();
+
+	private final HiscoreCache cache = new HiscoreCache(
+			new HiscoreProber((username, endpoint) ->
+			{
+				CompletableFuture<HiscoreResult> f = new CompletableFuture<>();
+				requests.add(f);
+				return f;
+			}, HiscoreProber.MAX_IN_FLIGHT),
+			() -> now,
+			TTL);
+
+	@Test
+	public void concurrentCallersShareOneLookup()
+	{
+		CompletableFuture<HiscoreProber.Hit> first = cache.lookup("Player", HiscoreEndpoint.NORMAL, false);
+		CompletableFuture<HiscoreProber.Hit> second = cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		CompletableFuture<HiscoreProber.Hit> forced = cache.lookup("PLAYER", HiscoreEndpoint.NORMAL, true);
+
+		assertSame(first, second);
+		assertSame(first, forced);
+		assertEquals(1, requests.size());
+		assertFalse(first.isDone());
+
+		assertEquals(1, cache.getMisses());
+		assertEquals(2, cache.getShared());
+		assertEquals(0, cache.getHits());
+
+		HiscoreResult result = new HiscoreResult();
+		requests.get(0).complete(result);
+		assertSame(result, first.join().result);
+	}
+
+	@Test
+	public void resultIsReusedUntilTheTtlRunsOut()
+	{
+		HiscoreResult result = new HiscoreResult();
+		cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		requests.get(0).complete(result);
+
+		now += TTL - 1;
+		assertSame(result, cache.lookup("player", HiscoreEndpoint.NORMAL, false).join().result);
+		assertEquals(1, requests.size());
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getHits());
+
+		now += 1;
+		cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		assertEquals(2, requests.size());
+		assertEquals(2, cache.getMisses());
+		assertEquals(1, cache.getHits());
+		assertEquals(0, cache.getShared());
+	}
+
+	@Test
+	public void forceAndInvalidateSkipTheCache()
+	{
+		cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		requests.get(0).complete(new HiscoreResult());
+
+		cache.lookup("player", HiscoreEndpoint.NORMAL, true);
+		assertEquals(2, requests.size());
+		requests.get(1).complete(new HiscoreResult());
+
+		cache.invalidate("Player");
+		cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		assertEquals(3, requests.size());
+		assertEquals(3, cache.getMisses());
+		assertEquals(0, cache.getHits());
+	}
+
+	@Test
+	public void lookupInFlightWhenInvalidatedIsNotCached()
+	{
+		CompletableFuture<HiscoreProber.Hit> stale = cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		cache.invalidate("player");
+
+		// Asked after the invalidate: a lookup of its own, not the stale one
+		CompletableFuture<HiscoreProber.Hit> fresh = cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		assertNotSame(stale, fresh);
+		assertEquals(2, requests.size());
+
+		HiscoreResult old = new HiscoreResult();
+		requests.get(0).complete(old);
+		assertSame(old, stale.join().result);
+		assertFalse(fresh.isDone());
+
+		HiscoreResult current = new HiscoreResult();
+		requests.get(1).complete(current);
+		assertSame(current, cache.lookup("player", HiscoreEndpoint.NORMAL, false).join().result);
+		assertEquals(2, requests.size());
+	}
+
+	@Test
+	public void lookupFinishingAfterInvalidateIsNotCached()
+	{
+		cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		cache.invalidate("player");
+		requests.get(0).complete(new HiscoreResult());
+
+		cache.lookup("player", HiscoreEndpoint.NORMAL, false);
+		assertEquals(2, requests.size());
+	}
+
+	@Test
+	public void failuresAreNotCached()
+	{
+		CompletableFuture<HiscoreProber.Hit> failed = cache.lookup("player", null, false);
+		for (int i = 0; i < requests.size(); i++)
+		{
+			// Completing one starts the next endpoint's request
+			requests.get(i).complete(null);
+		}
+		assertNull(failed.join());
+
+		int before = requests.size();
+		cache.lookup("player", null, false);
+		assertEquals(before + HiscoreProber.MAX_IN_FLIGHT, requests.size());
+	}
+}
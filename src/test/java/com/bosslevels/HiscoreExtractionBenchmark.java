@@ -0,0 +1,322 @@
+package com.bosslevels;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares reading every boss KC out of a hiscore result with the old per-boss reflection (run inside
+ * clientThread.invoke, once per boss per pull) against the MethodHandle table of HiscoreKcExtractor,
+ * which runs off the client thread and leaves the client thread only the finished array. The result
+ * is shaped like RuneLite's HiscoreResult: a private Map field keyed by an enum, holding score objects
+ * with getLevel(). Run main() directly.
+ */
+public class HiscoreExtractionBenchmark
+{
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+
+	public static final class Score
+	{
+		private final int rank;
+		private final int level;
+
+		Score(int rank, int level)
+		{
+			this.rank = rank;
+			this.level = level;
+		}
+
+		public int getRank()
+		{
+			return rank;
+		}
+
+		public int getLevel()
+		{
+			return level;
+		}
+	}
+
+	public static final class Result
+	{
+		private final String player = "player";
+		private final Map<BossDefinition, Score> skills = new EnumMap<>(BossDefinition.class);
+
+		public Score getSkill(BossDefinition boss)
+		{
+			return skills.get(boss);
+		}
+	}
+
+	public static void main(String[] args)
+	{
+		Random random = new Random(3);
+		Result result = new Result();
+		for (BossDefinition boss : BOSSES)
+		{
+			// Leave some bosses out and some unranked, like a real pull
+			int roll = random.nextInt(10);
+			if (roll > 0)
+			{
+				result.skills.put(boss, new Score(random.nextInt(100_000), roll == 1 ? -1 : random.nextInt(5_000)));
+			}
+		}
+
+		int[] kcs = HiscoreKcExtractor.of(Result.class).extract(result);
+		for (BossDefinition boss : BOSSES)
+		{
+			Integer legacy = tryGetBossKillCount(result, boss);
+			int expected = legacy == null ? HiscoreKcExtractor.UNMAPPED : legacy;
+			if (kcs[boss.ordinal()] != expected)
+			{
+				throw new IllegalStateException(boss + ": " + kcs[boss.ordinal()] + " != " + expected);
+			}
+		}
+
+		int rounds = 20_000;
+		long sink = 0;
+		for (int i = 0; i < rounds / 4; i++)
+		{
+			sink += legacyPull(result);
+			sink += apply(HiscoreKcExtractor.of(Result.class).extract(result));
+		}
+
+		long t0 = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			sink += legacyPull(result);
+		}
+		long t1 = System.nanoTime();
+		int[] extracted = null;
+		for (int i = 0; i < rounds; i++)
+		{
+			extracted = HiscoreKcExtractor.of(Result.class).extract(result);
+		}
+		long t2 = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			sink += apply(extracted);
+		}
+		long t3 = System.nanoTime();
+
+		System.out.printf("legacy reflection, client thread : %.2f us/pull%n", (t1 - t0) / 1000.0 / rounds);
+		System.out.printf("method handles, off client thread: %.2f us/pull%n", (t2 - t1) / 1000.0 / rounds);
+		System.out.printf("method handles, client thread    : %.3f us/pull%n", (t3 - t2) / 1000.0 / rounds);
+		System.out.println("(checksum " + sink + ")");
+	}
+
+	/**
+	 * The client-thread loop as it was: per-boss reflection for all 50 bosses.
+	 */
+	private static long legacyPull(Object result)
+	{
+		long sum = 0;
+		for (BossDefinition boss : BOSSES)
+		{
+			Integer kc = tryGetBossKillCount(result, boss);
+			if (kc != null && kc >= 0)
+			{
+				sum += kc;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * What is left on the client thread now: one pass over the array.
+	 */
+	private static long apply(int[] kcs)
+	{
+		long sum = 0;
+		for (int kc : kcs)
+		{
+			if (kc != HiscoreKcExtractor.UNMAPPED && kc >= 0)
+			{
+				sum += kc;
+			}
+		}
+		return sum;
+	}
+
+	/* ---------- Legacy extraction, as it was in BossLevelsPlugin ---------- */
+
+	private static Integer tryGetBossKillCount(Object result, BossDefinition def)
+	{
+		if (result == null || def == null)
+		{
+			return null;
+		}
+
+		// Hiscore enum constants are matched to bosses through BossNameIndex (ABYSSAL_SIRE -> "abyssal sire")
+
+		// 1) Try any public methods like getBossKc/getBossScore that take an enum parameter
+		Integer viaMethods = tryExtractViaBossMethods(result, def);
+		if (viaMethods != null)
+		{
+			return viaMethods;
+		}
+
+		// 2) Generic fallback: scan any Map fields in HiscoreResult and match enum keys by name()
+		return tryExtractFromMapFields(result, def);
+	}
+
+	private static Integer tryExtractViaBossMethods(Object result, BossDefinition def)
+	{
+		try
+		{
+			for (Method m : result.getClass().getMethods())
+			{
+				String n = m.getName();
+				if (!n.equals("getBossKc") && !n.equals("getBossScore"))
+				{
+					continue;
+				}
+
+				Class<?>[] params = m.getParameterTypes();
+				if (params.length != 1 || !params[0].isEnum())
+				{
+					continue;
+				}
+
+				Object bossEnum = findEnumConstantForBoss(params[0], def);
+				if (bossEnum == null)
+				{
+					continue;
+				}
+
+				Object out = m.invoke(result, bossEnum);
+
+				// getBossKc -> Integer
+				if (out instanceof Integer)
+				{
+					return (Integer) out;
+				}
+
+				// getBossScore -> some object; extract int
+				Integer kc = extractIntFromValue(out);
+				if (kc != null)
+				{
+					return kc;
+				}
+			}
+		}
+		catch (Exception ignored)
+		{
+		}
+
+		return null;
+	}
+
+	private static Integer tryExtractFromMapFields(Object result, BossDefinition def)
+	{
+		try
+		{
+			for (Field f : result.getClass().getDeclaredFields())
+			{
+				if (!Map.class.isAssignableFrom(f.getType()))
+				{
+					continue;
+				}
+
+				f.setAccessible(true);
+				Object mapObj = f.get(result);
+				if (!(mapObj instanceof Map))
+				{
+					continue;
+				}
+
+				Map<?, ?> map = (Map<?, ?>) mapObj;
+
+				for (Map.Entry<?, ?> e : map.entrySet())
+				{
+					Object key = e.getKey();
+					if (!(key instanceof Enum))
+					{
+						continue;
+					}
+
+					if (BossNameIndex.find(((Enum<?>) key).name()) != def)
+					{
+						continue;
+					}
+
+					Integer kc = extractIntFromValue(e.getValue());
+					if (kc != null)
+					{
+						return kc;
+					}
+				}
+			}
+		}
+		catch (Exception ignored)
+		{
+		}
+
+		return null;
+	}
+
+	private static Object findEnumConstantForBoss(Class<?> enumClass, BossDefinition def)
+	{
+		try
+		{
+			Object[] constants = enumClass.getEnumConstants();
+			if (constants == null)
+			{
+				return null;
+			}
+
+			for (Object c : constants)
+			{
+				if (c instanceof Enum && BossNameIndex.find(((Enum<?>) c).name()) == def)
+				{
+					return c;
+				}
+			}
+		}
+		catch (Exception ignored)
+		{
+		}
+
+		return null;
+	}
+
+	/**
+	 * Extracts an int KC from various RL hiscore value types.
+	 * Handles Integer directly and common getter names used by different RL versions.
+	 */
+	private static Integer extractIntFromValue(Object value)
+	{
+		if (value == null)
+		{
+			return null;
+		}
+
+		if (value instanceof Integer)
+		{
+			return (Integer) value;
+		}
+
+		// Common RL hiscore score containers
+		String[] methodNames = {"getKillCount", "getKc", "getLevel", "getScore", "getValue"};
+
+		for (String mn : methodNames)
+		{
+			try
+			{
+				Method m = value.getClass().getMethod(mn);
+				Object out = m.invoke(value);
+				if (out instanceof Integer)
+				{
+					return (Integer) out;
+				}
+			}
+			catch (Exception ignored)
+			{
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,183 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.client.hiscore.HiscoreEndpoint;
+import net.runelite.client.hiscore.HiscoreResult;
+import org.junit.After;
+import org.junit.Test;
+
+public class HiscoreProberTest
+{
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+	/**
+	 * Stand-in for HiscoreClient: every endpoint answers after its own latency, with a result if the
+	 * player is on it and an IOException otherwise.
+	 */
+	private final class FakeHiscores implements HiscoreProber.Lookup
+	{
+		private final Map<HiscoreEndpoint, Long> latencyMs = new EnumMap<>(HiscoreEndpoint.class);
+		private final Map<HiscoreEndpoint, HiscoreResult> results = new EnumMap<>(HiscoreEndpoint.class);
+		private final Map<HiscoreEndpoint, CompletableFuture<HiscoreResult>> requests = new EnumMap<>(HiscoreEndpoint.class);
+		private final List<HiscoreEndpoint> order = new ArrayList<>();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private int maxInFlight;
+
+		FakeHiscores(long defaultLatencyMs)
+		{
+			for (HiscoreEndpoint ep : HiscoreEndpoint.values())
+			{
+				latencyMs.put(ep, defaultLatencyMs);
+			}
+		}
+
+		FakeHiscores on(HiscoreEndpoint ep, long latency)
+		{
+			latencyMs.put(ep, latency);
+			results.put(ep, new HiscoreResult());
+			return this;
+		}
+
+		@Override
+		public synchronized CompletableFuture<HiscoreResult> lookup(String username, HiscoreEndpoint endpoint)
+		{
+			CompletableFuture<HiscoreResult> f = new CompletableFuture<>();
+			requests.put(endpoint, f);
+			order.add(endpoint);
+			maxInFlight = Math.max(maxInFlight, inFlight.incrementAndGet());
+
+			timer.schedule(() ->
+			{
+				inFlight.decrementAndGet();
+				HiscoreResult result = results.get(endpoint);
+				if (result != null)
+				{
+					f.complete(result);
+				}
+				else
+				{
+					f.completeExceptionally(new IOException("not on " + endpoint));
+				}
+			}, latencyMs.get(endpoint), TimeUnit.MILLISECONDS);
+			return f;
+		}
+
+		synchronized int requestCount()
+		{
+			return order.size();
+		}
+	}
+
+	@After
+	public void stopTimer()
+	{
+		timer.shutdownNow();
+	}
+
+	@Test
+	public void firstSuccessInPriorityOrderWinsAndTheRestAreCancelled() throws Exception
+	{
+		// NORMAL fails; IRONMAN is found quickly, HARDCORE_IRONMAN only slowly
+		FakeHiscores hiscores = new FakeHiscores(10).on(HiscoreEndpoint.IRONMAN, 50).on(HiscoreEndpoint.HARDCORE_IRONMAN, 2_000);
+		HiscoreProber prober = new HiscoreProber(hiscores, HiscoreProber.MAX_IN_FLIGHT);
+
+		long start = System.nanoTime();
+		HiscoreProber.Hit hit = prober.probe("player", null).get(5, TimeUnit.SECONDS);
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertSame(HiscoreEndpoint.IRONMAN, hit.endpoint);
+		assertSame(hiscores.results.get(HiscoreEndpoint.IRONMAN), hit.result);
+		assertTrue("took " + elapsedMs + "ms", elapsedMs < 1_000);
+		assertTrue(hiscores.requests.get(HiscoreEndpoint.HARDCORE_IRONMAN).isCancelled());
+	}
+
+	@Test
+	public void higherPriorityWinsEvenWhenItAnswersLater() throws Exception
+	{
+		// An ironman is on both; IRONMAN answers first but NORMAL comes first in priority
+		FakeHiscores hiscores = new FakeHiscores(10).on(HiscoreEndpoint.NORMAL, 300).on(HiscoreEndpoint.IRONMAN, 20);
+		HiscoreProber prober = new HiscoreProber(hiscores, HiscoreProber.MAX_IN_FLIGHT);
+
+		HiscoreProber.Hit hit = prober.probe("player", null).get(5, TimeUnit.SECONDS);
+
+		assertSame(HiscoreEndpoint.NORMAL, hit.endpoint);
+		assertSame(hiscores.results.get(HiscoreEndpoint.NORMAL), hit.result);
+	}
+
+	@Test
+	public void failuresAreProbedConcurrentlyWithinTheBound() throws Exception
+	{
+		// Serially this is 6 x 200ms
+		FakeHiscores hiscores = new FakeHiscores(200).on(HiscoreEndpoint.LEVEL_3_SKILLER, 200);
+		HiscoreProber prober = new HiscoreProber(hiscores, 4);
+
+		long start = System.nanoTime();
+		HiscoreProber.Hit hit = prober.probe("player", null).get(5, TimeUnit.SECONDS);
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertSame(HiscoreEndpoint.LEVEL_3_SKILLER, hit.endpoint);
+		assertEquals(4, hiscores.maxInFlight);
+		assertTrue("took " + elapsedMs + "ms", elapsedMs < 900);
+	}
+
+	@Test
+	public void seasonalAndDeadmanEndpointsAreNeverAsked() throws Exception
+	{
+		FakeHiscores hiscores = new FakeHiscores(5).on(HiscoreEndpoint.DEADMAN, 5).on(HiscoreEndpoint.SEASONAL, 5);
+		HiscoreProber prober = new HiscoreProber(hiscores, HiscoreProber.MAX_IN_FLIGHT);
+
+		assertNull(prober.probe("player", HiscoreEndpoint.SEASONAL).get(5, TimeUnit.SECONDS));
+		assertFalse(hiscores.order.contains(HiscoreEndpoint.DEADMAN));
+		assertFalse(hiscores.order.contains(HiscoreEndpoint.SEASONAL));
+	}
+
+	@Test
+	public void knownEndpointIsAskedAlone() throws Exception
+	{
+		FakeHiscores hiscores = new FakeHiscores(10).on(HiscoreEndpoint.NORMAL, 10).on(HiscoreEndpoint.HARDCORE_IRONMAN, 30);
+		HiscoreProber prober = new HiscoreProber(hiscores, HiscoreProber.MAX_IN_FLIGHT);
+
+		HiscoreProber.Hit hit = prober.probe("player", HiscoreEndpoint.HARDCORE_IRONMAN).get(5, TimeUnit.SECONDS);
+
+		assertSame(HiscoreEndpoint.HARDCORE_IRONMAN, hit.endpoint);
+		assertEquals(1, hiscores.requestCount());
+	}
+
+	@Test
+	public void knownEndpointFailingFallsBackToTheRest() throws Exception
+	{
+		FakeHiscores hiscores = new FakeHiscores(10).on(HiscoreEndpoint.NORMAL, 20);
+		HiscoreProber prober = new HiscoreProber(hiscores, HiscoreProber.MAX_IN_FLIGHT);
+
+		HiscoreProber.Hit hit = prober.probe("player", HiscoreEndpoint.IRONMAN).get(5, TimeUnit.SECONDS);
+
+		assertSame(HiscoreEndpoint.NORMAL, hit.endpoint);
+		assertSame(HiscoreEndpoint.IRONMAN, hiscores.order.get(0));
+		assertEquals(1, hiscores.order.stream().filter(ep -> ep == HiscoreEndpoint.IRONMAN).count());
+	}
+
+	@Test
+	public void notFoundAnywhereCompletesWithNull() throws Exception
+	{
+		FakeHiscores hiscores = new FakeHiscores(5);
+		HiscoreProber prober = new HiscoreProber(hiscores, 2);
+
+		assertNull(prober.probe("player", null).get(5, TimeUnit.SECONDS));
+		assertEquals(HiscoreProber.ENDPOINTS.size(), hiscores.requestCount());
+		assertEquals(2, hiscores.maxInFlight);
+	}
+}
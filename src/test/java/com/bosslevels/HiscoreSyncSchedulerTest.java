@@ -0,0 +1,195 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+
+public class HiscoreSyncSchedulerTest
+{
+	private static final long INTERVAL = 30 * 60_000;
+
+	private long now = 1_000_000;
+
+	/**
+	 * Tasks run when the fake clock is advanced past their due time.
+	 */
+	private final class FakeTimer implements HiscoreSyncScheduler.Timer
+	{
+		private final class Task
+		{
+			final Runnable run;
+			final long due;
+			boolean cancelled;
+
+			Task(Runnable run, long due)
+			{
+				this.run = run;
+				this.due = due;
+			}
+		}
+
+		private final List<Task> tasks = new ArrayList<>();
+
+		@Override
+		public Runnable schedule(Runnable run, long delayMillis)
+		{
+			Task t = new Task(run, now + delayMillis);
+			tasks.add(t);
+			return () -> t.cancelled = true;
+		}
+
+		void advance(long millis)
+		{
+			long until = now + millis;
+			while (true)
+			{
+				Task next = null;
+				for (Task t : tasks)
+				{
+					if (!t.cancelled && t.due <= until && (next == null || t.due < next.due))
+					{
+						next = t;
+					}
+				}
+				if (next == null)
+				{
+					break;
+				}
+				tasks.remove(next);
+				now = Math.max(now, next.due);
+				next.run.run();
+			}
+			now = until;
+		}
+
+		int pending()
+		{
+			return (int) tasks.stream().filter(t -> !t.cancelled).count();
+		}
+	}
+
+	private final FakeTimer timer = new FakeTimer();
+
+	// Outcomes for the next syncs (true/false); once empty, syncs stay pending until completed by hand
+	private final Deque<Boolean> outcomes = new ArrayDeque<>();
+	private final List<CompletableFuture<Boolean>> held = new ArrayList<>();
+
+	private final HiscoreSyncScheduler scheduler = new HiscoreSyncScheduler(
+			timer,
+			() -> now,
+			() -> 1.0,
+			() ->
+			{
+				Boolean ok = outcomes.poll();
+				if (ok != null)
+				{
+					return CompletableFuture.completedFuture(ok);
+				}
+				CompletableFuture<Boolean> f = new CompletableFuture<>();
+				held.add(f);
+				return f;
+			},
+			INTERVAL);
+
+	@Test
+	public void syncsOnlyOnceTheLastSuccessIsStale()
+	{
+		scheduler.recordResult(true);
+		scheduler.start();
+
+		timer.advance(INTERVAL - 1);
+		assertEquals(0, scheduler.getSyncs());
+
+		outcomes.add(true);
+		timer.advance(1);
+		assertEquals(1, scheduler.getSyncs());
+		assertEquals(now + INTERVAL, scheduler.getNextRunMillis());
+	}
+
+	@Test
+	public void failuresBackOffWithACap()
+	{
+		scheduler.start();
+		for (int i = 0; i < 12; i++)
+		{
+			outcomes.add(false);
+		}
+		timer.advance(INTERVAL);
+		assertEquals(1, scheduler.getConsecutiveFailures());
+
+		long expected = HiscoreSyncScheduler.BASE_BACKOFF_MILLIS;
+		for (int failures = 1; failures < 12; failures++)
+		{
+			assertEquals(Math.min(expected, HiscoreSyncScheduler.MAX_BACKOFF_MILLIS), scheduler.getLastDelayMillis());
+			timer.advance(scheduler.getLastDelayMillis());
+			expected *= 2;
+		}
+		assertEquals(HiscoreSyncScheduler.MAX_BACKOFF_MILLIS, scheduler.getLastDelayMillis());
+		assertEquals(12, scheduler.getFailures());
+		assertEquals(1, timer.pending());
+	}
+
+	@Test
+	public void jitterKeepsTheDelayBetweenHalfAndFull()
+	{
+		HiscoreSyncScheduler none = new HiscoreSyncScheduler(timer, () -> now, () -> 0.0,
+				() -> CompletableFuture.completedFuture(false), INTERVAL);
+		long d = HiscoreSyncScheduler.BASE_BACKOFF_MILLIS << 2;
+		assertEquals(d / 2, none.backoffMillis(3));
+		assertEquals(d, scheduler.backoffMillis(3));
+	}
+
+	@Test
+	public void successResetsTheBackoff()
+	{
+		scheduler.start();
+		outcomes.add(false);
+		outcomes.add(false);
+		timer.advance(INTERVAL);
+		timer.advance(scheduler.getLastDelayMillis());
+		assertEquals(2, scheduler.getConsecutiveFailures());
+
+		outcomes.add(true);
+		timer.advance(scheduler.getLastDelayMillis());
+		assertEquals(0, scheduler.getConsecutiveFailures());
+		assertEquals(INTERVAL, scheduler.getLastDelayMillis());
+	}
+
+	@Test
+	public void stopCancelsThePendingRunAndIgnoresLateResults()
+	{
+		scheduler.start();
+		timer.advance(INTERVAL);
+		assertEquals(1, held.size());
+
+		scheduler.stop();
+		assertFalse(scheduler.isRunning());
+		held.get(0).complete(false);
+		assertEquals(0, scheduler.getConsecutiveFailures());
+		assertEquals(-1, scheduler.getNextRunMillis());
+		assertEquals(0, timer.pending());
+
+		timer.advance(10 * INTERVAL);
+		assertEquals(1, scheduler.getSyncs());
+	}
+
+	@Test
+	public void syncFromElsewherePostponesTheNextRun()
+	{
+		scheduler.start();
+		timer.advance(INTERVAL / 2);
+
+		// E.g. the panel button
+		scheduler.recordResult(true);
+		timer.advance(INTERVAL / 2);
+		assertEquals(0, scheduler.getSyncs());
+		assertTrue(scheduler.isRunning());
+		assertEquals(now + INTERVAL / 2, scheduler.getNextRunMillis());
+	}
+}
@@ -0,0 +1,141 @@
+package com.bosslevels;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.swing.ImageIcon;
+
+/**
+ * Compares the per-image icon maps (one multi-resolution image and ImageIcon per boss and size, as
+ * before the atlas) with the per-size atlases: heap held by a set of icons, and the time to draw a
+ * frame of 50 overlay icons. Runs headless; run main() directly.
+ */
+public class IconAtlasBenchmark
+{
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+	private static final int COPIES = 40;
+
+	public static void main(String[] args)
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		BufferedImage source = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < 64; y++)
+		{
+			for (int x = 0; x < 64; x++)
+			{
+				source.setRGB(x, y, 0xff000000 | (x * 4) << 16 | (y * 4) << 8);
+			}
+		}
+
+		// Heap: COPIES of each representation, measured as the change in used memory
+		Object[] keep = new Object[COPIES];
+		long before = usedHeap();
+		for (int c = 0; c < COPIES; c++)
+		{
+			keep[c] = legacyMaps(source);
+		}
+		long legacyBytes = (usedHeap() - before) / COPIES;
+		keep = new Object[COPIES];
+
+		before = usedHeap();
+		for (int c = 0; c < COPIES; c++)
+		{
+			keep[c] = atlas(source);
+		}
+		long atlasBytes = (usedHeap() - before) / COPIES;
+
+		Map<BossDefinition, ImageIcon> legacy = legacyMaps(source).get(BossIconCache.Size.OVERLAY);
+		BossIconCache cache = (BossIconCache) keep[0];
+
+		BufferedImage frame = new BufferedImage(765, 503, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = frame.createGraphics();
+		g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.7f));
+
+		int rounds = 4_000;
+		for (int i = 0; i < rounds / 4; i++)
+		{
+			drawLegacy(g, legacy);
+			drawAtlas(g, cache);
+		}
+
+		long t0 = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			drawLegacy(g, legacy);
+		}
+		long t1 = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			drawAtlas(g, cache);
+		}
+		long t2 = System.nanoTime();
+		g.dispose();
+
+		System.out.printf("per-image heap: %,d bytes per icon set%n", legacyBytes);
+		System.out.printf("atlas heap    : %,d bytes per icon set (%,d of pixels)%n", atlasBytes, cache.pixelBytes());
+		System.out.printf("per-image draw: %.1f us per 50 overlay icons%n", (t1 - t0) / 1000.0 / rounds);
+		System.out.printf("atlas draw    : %.1f us per 50 overlay icons%n", (t2 - t1) / 1000.0 / rounds);
+	}
+
+	/**
+	 * The icon storage as it was before the atlas: an ImageIcon over a 1x/2x image per boss and size.
+	 */
+	private static Map<BossIconCache.Size, Map<BossDefinition, ImageIcon>> legacyMaps(BufferedImage source)
+	{
+		Map<BossIconCache.Size, Map<BossDefinition, ImageIcon>> maps = new EnumMap<>(BossIconCache.Size.class);
+		for (BossIconCache.Size size : BossIconCache.Size.values())
+		{
+			Map<BossDefinition, ImageIcon> icons = new EnumMap<>(BossDefinition.class);
+			for (BossDefinition boss : BOSSES)
+			{
+				icons.put(boss, new ImageIcon(new BaseMultiResolutionImage(
+						BossIconCache.scale(source, size.px, size.px),
+						BossIconCache.scale(source, size.px * BossIconCache.HIDPI_SCALE, size.px * BossIconCache.HIDPI_SCALE))));
+			}
+			maps.put(size, icons);
+		}
+		return maps;
+	}
+
+	private static BossIconCache atlas(BufferedImage source)
+	{
+		BossIconCache cache = new BossIconCache();
+		for (BossDefinition boss : BOSSES)
+		{
+			cache.put(boss, source);
+		}
+		return cache;
+	}
+
+	private static void drawLegacy(Graphics2D g, Map<BossDefinition, ImageIcon> icons)
+	{
+		for (BossDefinition boss : BOSSES)
+		{
+			int i = boss.ordinal();
+			g.drawImage(icons.get(boss).getImage(), (i % 25) * 30, (i / 25) * 30, null);
+		}
+	}
+
+	private static void drawAtlas(Graphics2D g, BossIconCache cache)
+	{
+		for (BossDefinition boss : BOSSES)
+		{
+			int i = boss.ordinal();
+			cache.draw(g, BossIconCache.Size.OVERLAY, boss, (i % 25) * 30, (i / 25) * 30);
+		}
+	}
+
+	private static long usedHeap()
+	{
+		Runtime rt = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+		{
+			System.gc();
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+}
@@ -0,0 +1,151 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KcHistoryTest
+{
+	private Path dir;
+
+	@Before
+	public void createDir() throws IOException
+	{
+		dir = Files.createTempDirectory("kchistory");
+	}
+
+	@After
+	public void deleteDir() throws IOException
+	{
+		try (Stream<Path> files = Files.walk(dir))
+		{
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private KcHistory load()
+	{
+		KcHistory history = new KcHistory(dir.toFile());
+		history.load();
+		return history;
+	}
+
+	private Path seriesFile(BossDefinition boss)
+	{
+		return dir.resolve(KcHistory.DIR).resolve(boss.configKey + ".bin");
+	}
+
+	/**
+	 * Every point in [from, to) as {time, kc, gained}.
+	 */
+	private static List<long[]> scan(KcHistory history, BossDefinition boss, long from, long to)
+	{
+		List<long[]> out = new ArrayList<>();
+		history.scan(boss, from, to, (t, kc, gained) -> out.add(new long[]{t, kc, gained}));
+		return out;
+	}
+
+	@Test
+	public void roundTripThroughFlushAndLoad()
+	{
+		// Irregular gaps, KC going down (a hiscore correction) and more points than one checkpoint span
+		Random random = new Random(11);
+		KcHistory history = load();
+		List<long[]> expected = new ArrayList<>();
+		long t = 1_700_000_000L;
+		int kc = 0;
+		for (int i = 0; i < 2_000; i++)
+		{
+			t += random.nextInt(10) == 0 ? random.nextInt(1_000_000) : 60 + random.nextInt(5);
+			int next = random.nextInt(50) == 0 ? kc - 3 : kc + 1 + random.nextInt(2);
+			expected.add(new long[]{t, next, i == 0 ? 0 : next - kc});
+			history.record(BossDefinition.VORKATH, t, next);
+			kc = next;
+		}
+		history.flush();
+
+		List<long[]> points = scan(load(), BossDefinition.VORKATH, Long.MIN_VALUE, Long.MAX_VALUE);
+		assertEquals(expected.size(), points.size());
+		for (int i = 0; i < points.size(); i++)
+		{
+			assertArrayEquals("point " + i, expected.get(i), points.get(i));
+		}
+	}
+
+	@Test
+	public void rangeScanStartsAtTheRightPoint()
+	{
+		KcHistory history = load();
+		for (int i = 0; i < 3_000; i++)
+		{
+			history.record(BossDefinition.ZULRAH, 1_000 + i * 10L, i);
+		}
+
+		List<long[]> points = scan(history, BossDefinition.ZULRAH, 1_000 + 1_500 * 10L, 1_000 + 1_503 * 10L);
+		assertEquals(3, points.size());
+		assertArrayEquals(new long[]{16_000, 1_500, 1}, points.get(0));
+		assertArrayEquals(new long[]{16_020, 1_502, 1}, points.get(2));
+	}
+
+	@Test
+	public void timeGoingBackwardsIsClamped()
+	{
+		KcHistory history = load();
+		history.record(BossDefinition.KRAKEN, 5_000, 1);
+		history.record(BossDefinition.KRAKEN, 4_000, 2);
+
+		List<long[]> points = scan(history, BossDefinition.KRAKEN, Long.MIN_VALUE, Long.MAX_VALUE);
+		assertArrayEquals(new long[]{5_000, 2, 1}, points.get(1));
+	}
+
+	@Test
+	public void tornPointIsCutOffTheEnd() throws IOException
+	{
+		KcHistory history = load();
+		history.record(BossDefinition.VORKATH, 1_000, 1);
+		history.record(BossDefinition.VORKATH, 2_000, 2);
+		history.flush();
+		long size = Files.size(seriesFile(BossDefinition.VORKATH));
+
+		// Half a varint: continuation bit set, then the file ends
+		Files.write(seriesFile(BossDefinition.VORKATH), new byte[]{(byte) 0x80}, StandardOpenOption.APPEND);
+
+		history = load();
+		assertEquals(size, Files.size(seriesFile(BossDefinition.VORKATH)));
+		assertEquals(2, scan(history, BossDefinition.VORKATH, Long.MIN_VALUE, Long.MAX_VALUE).size());
+
+		// Appending after the cut continues from the last whole point
+		history.record(BossDefinition.VORKATH, 3_000, 5);
+		history.flush();
+		List<long[]> points = scan(load(), BossDefinition.VORKATH, Long.MIN_VALUE, Long.MAX_VALUE);
+		assertArrayEquals(new long[]{3_000, 5, 3}, points.get(2));
+	}
+
+	@Test
+	public void flushOnlyAppendsNewBytes() throws IOException
+	{
+		KcHistory history = load();
+		history.record(BossDefinition.VORKATH, 1_000, 1);
+		history.flush();
+		long size = Files.size(seriesFile(BossDefinition.VORKATH));
+
+		history.flush();
+		assertEquals(size, Files.size(seriesFile(BossDefinition.VORKATH)));
+
+		history.record(BossDefinition.VORKATH, 1_060, 2);
+		history.flush();
+		assertEquals(2, scan(load(), BossDefinition.VORKATH, Long.MIN_VALUE, Long.MAX_VALUE).size());
+	}
+}
@@ -0,0 +1,144 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KcJournalTest
+{
+	private Path dir;
+
+	@Before
+	public void createDir() throws IOException
+	{
+		dir = Files.createTempDirectory("kcjournal");
+	}
+
+	@After
+	public void deleteDir() throws IOException
+	{
+		try (Stream<Path> files = Files.walk(dir))
+		{
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private KcJournal reopen()
+	{
+		KcJournal journal = new KcJournal(dir.toFile());
+		journal.open();
+		return journal;
+	}
+
+	private Path journalFile()
+	{
+		return dir.resolve(KcJournal.JOURNAL_FILE);
+	}
+
+	@Test
+	public void roundTrip()
+	{
+		KcJournal journal = reopen();
+		journal.append(BossDefinition.VORKATH, 10, KcJournal.Source.CHAT, 1_000);
+		journal.append(BossDefinition.ZULRAH, 250, KcJournal.Source.HISCORES, 2_000);
+		journal.append(BossDefinition.VORKATH, 11, KcJournal.Source.CHAT, 3_000);
+		journal.close();
+
+		journal = reopen();
+		assertEquals(11, journal.getKc(BossDefinition.VORKATH));
+		assertEquals(250, journal.getKc(BossDefinition.ZULRAH));
+		assertEquals(-1, journal.getKc(BossDefinition.KRAKEN));
+		journal.close();
+	}
+
+	@Test
+	public void tornTailIsCutOff() throws IOException
+	{
+		KcJournal journal = reopen();
+		journal.append(BossDefinition.VORKATH, 10, KcJournal.Source.CHAT, 1_000);
+		journal.append(BossDefinition.ZULRAH, 20, KcJournal.Source.CHAT, 2_000);
+		journal.close();
+
+		Files.write(journalFile(), new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+		journal = reopen();
+		assertEquals(10, journal.getKc(BossDefinition.VORKATH));
+		assertEquals(20, journal.getKc(BossDefinition.ZULRAH));
+		assertEquals(2L * KcJournal.RECORD_SIZE, Files.size(journalFile()));
+
+		// Appends continue right after the last whole record
+		journal.append(BossDefinition.KRAKEN, 30, KcJournal.Source.CHAT, 3_000);
+		journal.close();
+		assertEquals(30, reopen().getKc(BossDefinition.KRAKEN));
+	}
+
+	@Test
+	public void badRecordInTheMiddleIsSkipped() throws IOException
+	{
+		KcJournal journal = reopen();
+		journal.append(BossDefinition.VORKATH, 10, KcJournal.Source.CHAT, 1_000);
+		journal.append(BossDefinition.ZULRAH, 20, KcJournal.Source.CHAT, 2_000);
+		journal.append(BossDefinition.KRAKEN, 30, KcJournal.Source.CHAT, 3_000);
+		journal.close();
+
+		// Zero the second record's timestamp
+		try (FileChannel ch = FileChannel.open(journalFile(), StandardOpenOption.WRITE))
+		{
+			ch.write(ByteBuffer.allocate(8), KcJournal.RECORD_SIZE);
+		}
+
+		journal = reopen();
+		assertEquals(10, journal.getKc(BossDefinition.VORKATH));
+		assertEquals(-1, journal.getKc(BossDefinition.ZULRAH));
+		assertEquals(30, journal.getKc(BossDefinition.KRAKEN));
+		journal.close();
+	}
+
+	@Test
+	public void compactionFoldsTheJournalIntoTheSnapshot() throws IOException
+	{
+		KcJournal journal = reopen();
+		for (int i = 0; i < KcJournal.COMPACT_RECORDS; i++)
+		{
+			journal.append(i % 2 == 0 ? BossDefinition.VORKATH : BossDefinition.ZULRAH, i, KcJournal.Source.CHAT, 1_000 + i);
+		}
+		journal.flush();
+
+		assertTrue(Files.exists(dir.resolve(KcJournal.SNAPSHOT_FILE)));
+		assertEquals(0, Files.size(journalFile()));
+
+		journal.append(BossDefinition.VORKATH, 99_999, KcJournal.Source.CHAT, 100_000);
+		journal.close();
+
+		journal = reopen();
+		assertEquals(99_999, journal.getKc(BossDefinition.VORKATH));
+		assertEquals(KcJournal.COMPACT_RECORDS - 1, journal.getKc(BossDefinition.ZULRAH));
+		journal.close();
+	}
+
+	@Test
+	public void unreadableSnapshotIsIgnored() throws IOException
+	{
+		Files.write(dir.resolve(KcJournal.SNAPSHOT_FILE), new byte[]{9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9});
+
+		KcJournal journal = reopen();
+		journal.append(BossDefinition.VORKATH, 10, KcJournal.Source.CHAT, 1_000);
+		journal.close();
+
+		journal = reopen();
+		assertEquals(10, journal.getKc(BossDefinition.VORKATH));
+		assertEquals(-1, journal.getKc(BossDefinition.ZULRAH));
+		journal.close();
+	}
+}
@@ -0,0 +1,116 @@
+package com.bosslevels;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.runelite.client.util.Text;
+
+/**
+ * Compares the old removeTags + regex chat path with KcMessageParser on a mix of game messages
+ * that is mostly combat/skilling spam with the occasional KC line. Run main() directly.
+ */
+public class KcMessageParserBenchmark
+{
+	private static final Pattern KC_PATTERN = Pattern.compile("^Your (.+) kill count is: (\\d+)\\.$");
+
+	private static final String[] NOISE = {
+			"You have a funny feeling like you're being followed.",
+			"Your Ring of recoil has shattered.",
+			"<col=ef1020>Your dwarf cannon is out of ammo.</col>",
+			"You eat the shark. It heals some health.",
+			"Your attack style has been changed.",
+			"You drink some of your Super combat potion.",
+			"<col=ff0000>You have 3 doses of potion left.</col>",
+			"You are poisoned!",
+			"Your Vorkath kill count will be shown when you next kill.",
+			"You can't reach that.",
+			"Your reward is: <col=ff0000>1,234</col> coins.",
+			"Fight duration: <col=ff0000>1:02.40</col>. Personal best: 0:58.20",
+	};
+
+	private static final String[] KC_LINES = {
+			"Your Vorkath kill count is: <col=ff0000>1234</col>.",
+			"Your Zulrah kill count is: <col=ff0000>87</col>.",
+			"Your Alchemical Hydra kill count is: <col=ff0000>412</col>.",
+			"Your Abyssal Sire kill count is: 22.",
+	};
+
+	public static void main(String[] args)
+	{
+		String[] messages = buildMix(100_000, 0.03, 42);
+
+		int regexHits = runRegex(messages);
+		int parserHits = runParser(messages);
+		if (regexHits != parserHits)
+		{
+			throw new IllegalStateException("Mismatch: regex=" + regexHits + " parser=" + parserHits);
+		}
+
+		// Warm-up
+		for (int i = 0; i < 20; i++)
+		{
+			runRegex(messages);
+			runParser(messages);
+		}
+
+		int rounds = 50;
+		long regexNs = 0;
+		long parserNs = 0;
+		for (int i = 0; i < rounds; i++)
+		{
+			long t0 = System.nanoTime();
+			runRegex(messages);
+			long t1 = System.nanoTime();
+			runParser(messages);
+			long t2 = System.nanoTime();
+			regexNs += t1 - t0;
+			parserNs += t2 - t1;
+		}
+
+		double total = (double) rounds * messages.length;
+		System.out.printf("messages=%d kcHits=%d%n", messages.length, parserHits);
+		System.out.printf("regex : %.1f ns/msg%n", regexNs / total);
+		System.out.printf("parser: %.1f ns/msg%n", parserNs / total);
+	}
+
+	private static int runRegex(String[] messages)
+	{
+		int hits = 0;
+		for (String raw : messages)
+		{
+			Matcher m = KC_PATTERN.matcher(Text.removeTags(raw).trim());
+			if (m.matches())
+			{
+				hits += Integer.parseInt(m.group(2)) > 0 ? 1 : 0;
+			}
+		}
+		return hits;
+	}
+
+	private static int runParser(String[] messages)
+	{
+		KcMessageParser parser = new KcMessageParser();
+		int hits = 0;
+		for (String raw : messages)
+		{
+			if (parser.parse(raw))
+			{
+				hits += parser.count() > 0 ? 1 : 0;
+			}
+		}
+		return hits;
+	}
+
+	private static String[] buildMix(int size, double kcRatio, long seed)
+	{
+		Random random = new Random(seed);
+		String[] out = new String[size];
+		for (int i = 0; i < size; i++)
+		{
+			out[i] = random.nextDouble() < kcRatio
+					? KC_LINES[random.nextInt(KC_LINES.length)]
+					: NOISE[random.nextInt(NOISE.length)];
+		}
+		return out;
+	}
+}
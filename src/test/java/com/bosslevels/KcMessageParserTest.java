@@ -0,0 +1,91 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class KcMessageParserTest
+{
+	private final KcMessageParser parser = new KcMessageParser();
+
+	private String name(String raw)
+	{
+		return raw.substring(parser.nameStart(), parser.nameEnd());
+	}
+
+	@Test
+	public void plainLine()
+	{
+		String raw = "Your Vorkath kill count is: 87.";
+		assertTrue(parser.parse(raw));
+		assertEquals("Vorkath", name(raw));
+		assertEquals(87, parser.count());
+		assertSame(BossDefinition.VORKATH, BossNameIndex.find(raw, parser.nameStart(), parser.nameEnd()));
+	}
+
+	@Test
+	public void colorTaggedLine()
+	{
+		String raw = "<col=ef1020>Your Alchemical Hydra kill count is: <col=ff0000>412</col>.</col>";
+		assertTrue(parser.parse(raw));
+		assertEquals("Alchemical Hydra", name(raw));
+		assertEquals(412, parser.count());
+	}
+
+	@Test
+	public void commaGroupedCount()
+	{
+		String raw = "Your Zulrah kill count is: <col=ff0000>1,234,567</col>.";
+		assertTrue(parser.parse(raw));
+		assertEquals(1_234_567, parser.count());
+	}
+
+	@Test
+	public void unknownBossParsesButDoesNotResolve()
+	{
+		String raw = "Your Chambers of Xeric kill count is: 12.";
+		assertTrue(parser.parse(raw));
+		assertEquals("Chambers of Xeric", name(raw));
+		assertNull(BossNameIndex.find(raw, parser.nameStart(), parser.nameEnd()));
+	}
+
+	@Test
+	public void nearMissesAreRejected()
+	{
+		String[] misses = {
+				"Your Vorkath kill count is: 87",
+				"Your Vorkath kill count is: .",
+				"Your Vorkath kill count is: 8x7.",
+				"Your Vorkath kill count is 87.",
+				"Your Vorkath kill count: 87.",
+				"your Vorkath kill count is: 87.",
+				"Your  kill count is: 87.",
+				"Vorkath kill count is: 87.",
+				"Your Vorkath killcount is: 87.",
+				"Your Vorkath kill count is: 99999999999.",
+				"Your reward is: 87.",
+				"",
+				null,
+		};
+		for (String raw : misses)
+		{
+			assertFalse(String.valueOf(raw), parser.parse(raw));
+		}
+	}
+
+	@Test
+	public void resultIsOverwrittenByTheNextMatch()
+	{
+		assertTrue(parser.parse("Your Vorkath kill count is: 87."));
+		assertFalse(parser.parse("You have a funny feeling like you're being followed."));
+		assertEquals(87, parser.count());
+
+		String raw = "Your Giant Mole kill count is: 3.";
+		assertTrue(parser.parse(raw));
+		assertEquals("Giant Mole", name(raw));
+		assertEquals(3, parser.count());
+	}
+}
@@ -0,0 +1,61 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class KillTableTest
+{
+	@Test
+	public void kcForLevelIsTheFirstKcThatReachesIt()
+	{
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			KillTable table = KillTable.of(boss);
+			long perKill = boss.xpPerKill;
+			for (int level = 1; level <= XpCurve.MAX_VIRTUAL_LEVEL; level++)
+			{
+				long kc = table.kcForLevel(level);
+				long xp = XpCurve.xpForLevel(level);
+				String at = boss.name() + " level " + level;
+				assertTrue(at, kc * perKill >= xp);
+				assertTrue(at, (kc - 1) * perKill < xp);
+			}
+		}
+	}
+
+	@Test
+	public void knownVorkathKcs()
+	{
+		// 489 xp per kill: 22,406 xp for level 35, 13,034,431 for 99
+		KillTable table = KillTable.of(BossDefinition.VORKATH);
+		assertEquals(0, table.kcForLevel(1));
+		assertEquals(46, table.kcForLevel(35));
+		assertEquals(26_656, table.kcForLevel(XpCurve.MAX_LEVEL));
+
+		// "Level 35: You had a 100% chance to obtain Vorkath's head"
+		MilestoneIndex milestones = MilestoneIndex.of(BossDefinition.VORKATH);
+		int head = milestones.firstAbove(34);
+		assertEquals(35, milestones.level(head));
+		assertEquals(46, table.killsToMilestone(head, 0));
+		assertEquals(1, table.killsToMilestone(head, 45));
+		assertEquals(0, table.killsToMilestone(head, 46));
+		assertEquals(0, table.killsToMilestone(head, 1_000));
+	}
+
+	@Test
+	public void levelsPastTheCapClampToIt()
+	{
+		KillTable table = KillTable.of(BossDefinition.VORKATH);
+
+		// 188,884,740 xp for level 126
+		assertEquals(386_268, table.kcForLevel(XpCurve.MAX_VIRTUAL_LEVEL));
+		assertEquals(386_268, table.kcForLevel(XpCurve.MAX_VIRTUAL_LEVEL + 1));
+		assertEquals(0, table.kcForLevel(0));
+		assertEquals(0, table.kcForLevel(-5));
+
+		assertEquals(1, table.killsToLevel(XpCurve.MAX_VIRTUAL_LEVEL, 386_267));
+		assertEquals(0, table.killsToLevel(XpCurve.MAX_VIRTUAL_LEVEL, 386_268));
+		assertEquals(0, table.killsToLevel(XpCurve.MAX_VIRTUAL_LEVEL, Integer.MAX_VALUE));
+	}
+}
@@ -0,0 +1,79 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class MilestoneIndexTest
+{
+	private final MilestoneIndex sire = MilestoneIndex.of(BossDefinition.ABYSSAL_SIRE);
+
+	@Test
+	public void eachKindYieldsItsLevelAndItem()
+	{
+		// "Level 63: You had a 50% chance to obtain an Abyssal dagger"
+		assertEquals(63, sire.level(0));
+		assertEquals(MilestoneIndex.Kind.FIFTY_PERCENT, sire.kind(0));
+		assertEquals("Abyssal dagger", sire.item(0));
+
+		// "Level 66: You are on rate to obtain an Abyssal dagger"
+		assertEquals(66, sire.level(1));
+		assertEquals(MilestoneIndex.Kind.ON_RATE, sire.kind(1));
+		assertEquals("Abyssal dagger", sire.item(1));
+
+		// "Level 79: You had a 99% chance to obtain the Abyssal bludgeon"
+		int bludgeon = sire.firstAbove(78) + 1;
+		assertEquals(79, sire.level(bludgeon));
+		assertEquals(MilestoneIndex.Kind.NINETY_NINE_PERCENT, sire.kind(bludgeon));
+		assertEquals("Abyssal bludgeon", sire.item(bludgeon));
+
+		// Goals that aren't an item are kept whole: "Level 74: You had a 50% chance to Complete Abyssal Sire"
+		int complete = sire.firstAbove(73) + 1;
+		assertEquals(MilestoneIndex.Kind.FIFTY_PERCENT, sire.kind(complete));
+		assertEquals("Complete Abyssal Sire", sire.item(complete));
+
+		MilestoneIndex vorkath = MilestoneIndex.of(BossDefinition.VORKATH);
+		int head = vorkath.firstAbove(34);
+		assertEquals(35, vorkath.level(head));
+		assertEquals(MilestoneIndex.Kind.GUARANTEED, vorkath.kind(head));
+		assertEquals("Vorkath's head", vorkath.item(head));
+	}
+
+	@Test
+	public void everyLineParsesAndDescribesBackToItself()
+	{
+		for (BossDefinition boss : BossDefinition.values())
+		{
+			MilestoneIndex index = MilestoneIndex.of(boss);
+			assertEquals(boss.name(), boss.milestones.size(), index.size());
+			for (int i = 0; i < index.size(); i++)
+			{
+				String line = index.describe(i);
+				assertNotEquals(line, MilestoneIndex.Kind.OTHER, index.kind(i));
+				assertTrue(line, boss.milestones.contains(line));
+				assertTrue(line, i == 0 || index.level(i - 1) <= index.level(i));
+			}
+		}
+	}
+
+	@Test
+	public void firstAboveAtTheBoundaries()
+	{
+		assertEquals(0, sire.firstAbove(0));
+		assertEquals(0, sire.firstAbove(62));
+		assertEquals(1, sire.firstAbove(63));
+		assertEquals(sire.size(), sire.firstAbove(99));
+		assertEquals(sire.size(), sire.firstAbove(XpCurve.MAX_VIRTUAL_LEVEL));
+
+		// A level-up from 69 to 70 crosses the three level 70 milestones, in written order
+		int from = sire.firstAbove(69);
+		int to = sire.firstAbove(70);
+		assertEquals(3, to - from);
+		assertEquals("Abyssal bludgeon", sire.item(from));
+		assertEquals("Jar of miasma", sire.item(from + 1));
+		assertEquals("Abyssal whip", sire.item(from + 2));
+		assertEquals(70, sire.level(to - 1));
+		assertEquals(72, sire.level(to));
+	}
+}
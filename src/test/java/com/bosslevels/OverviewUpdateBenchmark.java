@@ -0,0 +1,161 @@
+package com.bosslevels;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.GridLayout;
+import java.awt.Image;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+/**
+ * Compares the old removeAll + 50 new cells overview rebuild with the panel's own update path (markChanged
+ * recording the change and the EDT pass applying it) for one dirty boss (the usual per-kill case) and for
+ * every boss (a hiscore pull), plus what a kill costs while the panel is hidden and how many EDT passes a
+ * burst of changes takes. Runs headless; run main() directly.
+ */
+public class OverviewUpdateBenchmark
+{
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+
+	public static void main(String[] args) throws Exception
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		Map<BossDefinition, BufferedImage> icons = new EnumMap<>(BossDefinition.class);
+		Map<BossDefinition, Integer> levels = new EnumMap<>(BossDefinition.class);
+		long[] xp = new long[BOSSES.length];
+		for (BossDefinition boss : BOSSES)
+		{
+			icons.put(boss, new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB));
+			levels.put(boss, 50);
+			xp[boss.ordinal()] = 1_000_000;
+		}
+
+		BossIconCache iconCache = new BossIconCache();
+		icons.forEach(iconCache::put);
+
+		BossLevelsPanel panel = new BossLevelsPanel();
+		panel.setIconCache(iconCache);
+		panel.setModel(b -> xp[b.ordinal()], levels);
+		SwingUtilities.invokeAndWait(panel::onActivate);
+		JPanel legacyGrid = new JPanel(new GridLayout(0, 3, 18, 18));
+
+		Set<BossDefinition> one = EnumSet.of(BOSSES[7]);
+		Set<BossDefinition> all = EnumSet.allOf(BossDefinition.class);
+
+		int rounds = 2_000;
+		for (int i = 0; i < rounds / 4; i++)
+		{
+			legacyRebuild(legacyGrid, xp, levels, icons);
+			levels.put(BOSSES[7], 50 + (i & 1));
+			pass(panel, one);
+			pass(panel, all);
+		}
+
+		long t0 = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			legacyRebuild(legacyGrid, xp, levels, icons);
+		}
+		long t1 = System.nanoTime();
+		long before = panel.passes();
+		for (int i = 0; i < rounds; i++)
+		{
+			levels.put(BOSSES[7], 50 + (i & 1));
+			pass(panel, one);
+		}
+		long t2 = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			levels.put(BOSSES[7], 50 + (i & 1));
+			pass(panel, all);
+		}
+		long t3 = System.nanoTime();
+		if (panel.passes() - before != 2L * rounds)
+		{
+			throw new IllegalStateException("expected one EDT pass per change, got " + (panel.passes() - before));
+		}
+		SwingUtilities.invokeAndWait(panel::onDeactivate);
+		for (int i = 0; i < rounds; i++)
+		{
+			panel.markChanged(one, null);
+		}
+		long t4 = System.nanoTime();
+
+		// A visible panel turns a burst of changes into one EDT pass
+		SwingUtilities.invokeAndWait(panel::onActivate);
+		long passes = panel.passes();
+		for (BossDefinition boss : BOSSES)
+		{
+			panel.markChanged(EnumSet.of(boss), null);
+		}
+		SwingUtilities.invokeAndWait(() -> {});
+		long burstPasses = panel.passes() - passes;
+
+		System.out.printf("rebuild (removeAll + 50 cells): %.1f us/update%n", (t1 - t0) / 1000.0 / rounds);
+		System.out.printf("markChanged + pass, 1 boss    : %.1f us/update%n", (t2 - t1) / 1000.0 / rounds);
+		System.out.printf("markChanged + pass, 50 bosses : %.1f us/update%n", (t3 - t2) / 1000.0 / rounds);
+		System.out.printf("hidden panel, 1 dirty boss    : %.2f us/update%n", (t4 - t3) / 1000.0 / rounds);
+		System.out.printf("EDT passes for a 50-change burst: %d%n", burstPasses);
+	}
+
+	/**
+	 * One change through the panel's real path: markChanged records it and queues an EDT pass, which is
+	 * waited for.
+	 */
+	private static void pass(BossLevelsPanel panel, Set<BossDefinition> bosses) throws Exception
+	{
+		panel.markChanged(bosses, null);
+		SwingUtilities.invokeAndWait(() -> {});
+	}
+
+	/**
+	 * The overview rebuild as it was before cells were retained.
+	 */
+	private static void legacyRebuild(JPanel grid, long[] xp, Map<BossDefinition, Integer> levels, Map<BossDefinition, BufferedImage> icons)
+	{
+		grid.removeAll();
+		for (BossDefinition boss : BOSSES)
+		{
+			int level = levels.getOrDefault(boss, 1);
+			String levelText = (xp[boss.ordinal()] <= 0) ? "--" : String.valueOf(level);
+
+			JLabel iconLabel = new JLabel();
+			iconLabel.setIcon(new ImageIcon(icons.get(boss).getScaledInstance(19, 19, Image.SCALE_SMOOTH)));
+
+			JLabel levelLabel = new JLabel(levelText, SwingConstants.CENTER);
+			levelLabel.setForeground(Color.LIGHT_GRAY);
+
+			JPanel cell = new JPanel();
+			cell.setLayout(new BoxLayout(cell, BoxLayout.Y_AXIS));
+			cell.setOpaque(false);
+			iconLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+			levelLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+			cell.add(iconLabel);
+			cell.add(Box.createVerticalStrut(6));
+			cell.add(levelLabel);
+			cell.addMouseListener(new MouseAdapter()
+			{
+				@Override
+				public void mouseClicked(MouseEvent e)
+				{
+				}
+			});
+			grid.add(cell);
+		}
+		grid.revalidate();
+		grid.repaint();
+	}
+}
@@ -0,0 +1,90 @@
+package com.bosslevels;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares loading boss state from 50 legacy "xp_&lt;configKey&gt;" entries with decoding the single packed
+ * value, using a HashMap in place of the config. Run main() directly.
+ */
+public class StartupLoadBenchmark
+{
+	private static final BossDefinition[] BOSSES = BossDefinition.values();
+
+	public static void main(String[] args)
+	{
+		Random random = new Random(7);
+		long[] xp = new long[BOSSES.length];
+		int[] kc = new int[BOSSES.length];
+		for (BossDefinition boss : BOSSES)
+		{
+			kc[boss.ordinal()] = random.nextInt(5_000);
+			xp[boss.ordinal()] = (long) kc[boss.ordinal()] * boss.xpPerKill;
+		}
+
+		Map<String, String> config = new HashMap<>();
+		for (BossDefinition boss : BOSSES)
+		{
+			config.put(BossXpStore.key(boss), Long.toString(xp[boss.ordinal()]));
+		}
+		String packed = BossStateCodec.encode(xp, kc);
+		config.put(BossXpStore.PACKED_KEY, packed);
+
+		long[] outXp = new long[BOSSES.length];
+		int[] outKc = new int[BOSSES.length];
+		if (!BossStateCodec.decode(config.get(BossXpStore.PACKED_KEY), outXp, outKc)
+				|| !Arrays.equals(xp, outXp) || !Arrays.equals(kc, outKc))
+		{
+			throw new IllegalStateException("Packed state did not round-trip");
+		}
+
+		int rounds = 200_000;
+		long sink = 0;
+		for (int i = 0; i < rounds / 10; i++)
+		{
+			sink += loadLegacy(config, outXp);
+			sink += loadPacked(config, outXp, outKc);
+		}
+
+		long t0 = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			sink += loadLegacy(config, outXp);
+		}
+		long t1 = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			sink += loadPacked(config, outXp, outKc);
+		}
+		long t2 = System.nanoTime();
+
+		int legacyChars = 0;
+		for (BossDefinition boss : BOSSES)
+		{
+			legacyChars += BossXpStore.key(boss).length() + config.get(BossXpStore.key(boss)).length();
+		}
+
+		System.out.printf("legacy: %d lookups, %d chars, %.0f ns/load%n", BOSSES.length, legacyChars, (t1 - t0) / (double) rounds);
+		System.out.printf("packed: 1 lookup, %d chars, %.0f ns/load%n",
+				BossXpStore.PACKED_KEY.length() + packed.length(), (t2 - t1) / (double) rounds);
+		System.out.println("(sink " + sink + ")");
+	}
+
+	private static long loadLegacy(Map<String, String> config, long[] xp)
+	{
+		for (BossDefinition boss : BOSSES)
+		{
+			String v = config.get(BossXpStore.key(boss));
+			xp[boss.ordinal()] = v == null ? 0 : Long.parseLong(v);
+		}
+		return xp[0];
+	}
+
+	private static long loadPacked(Map<String, String> config, long[] xp, int[] kc)
+	{
+		BossStateCodec.decode(config.get(BossXpStore.PACKED_KEY), xp, kc);
+		return xp[0];
+	}
+}
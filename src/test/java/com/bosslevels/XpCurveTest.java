@@ -0,0 +1,85 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class XpCurveTest
+{
+	// The original per-call formula the table replaces.
+	private static int referenceXpForLevel(int level)
+	{
+		double points = 0;
+		for (int i = 1; i < level; i++)
+		{
+			points += Math.floor(i + 300.0 * Math.pow(2.0, i / 7.0));
+		}
+		return (int) Math.floor(points / 4.0);
+	}
+
+	private static int referenceLevelForXp(long xp)
+	{
+		for (int level = 1; level < 99; level++)
+		{
+			if (xp < referenceXpForLevel(level + 1))
+			{
+				return level;
+			}
+		}
+		return 99;
+	}
+
+	@Test
+	public void xpForLevelMatchesFormulaAtEveryLevel()
+	{
+		for (int level = 1; level <= XpCurve.MAX_LEVEL; level++)
+		{
+			assertEquals("level " + level, referenceXpForLevel(level), XpCurve.xpForLevel(level));
+		}
+	}
+
+	@Test
+	public void levelForXpMatchesFormulaAroundEveryThreshold()
+	{
+		for (int level = 1; level <= XpCurve.MAX_LEVEL; level++)
+		{
+			long threshold = referenceXpForLevel(level);
+			for (long xp = threshold - 1; xp <= threshold + 1; xp++)
+			{
+				assertEquals("xp " + xp, referenceLevelForXp(xp), XpCurve.levelForXp(xp, XpCurve.MAX_LEVEL));
+			}
+		}
+	}
+
+	@Test
+	public void levelForXpClampsOutOfRangeXp()
+	{
+		assertEquals(1, XpCurve.levelForXp(-5, XpCurve.MAX_LEVEL));
+		assertEquals(1, XpCurve.levelForXp(0, XpCurve.MAX_LEVEL));
+		assertEquals(99, XpCurve.levelForXp(13_034_431, XpCurve.MAX_LEVEL));
+		assertEquals(99, XpCurve.levelForXp(Long.MAX_VALUE, XpCurve.MAX_LEVEL));
+	}
+
+	@Test
+	public void virtualLevelsMatchFormulaUpToCap()
+	{
+		for (int level = XpCurve.MAX_LEVEL; level <= XpCurve.MAX_VIRTUAL_LEVEL; level++)
+		{
+			int threshold = referenceXpForLevel(level);
+			assertEquals("level " + level, threshold, XpCurve.xpForLevel(level));
+			assertEquals(level, XpCurve.levelForXp(threshold, XpCurve.MAX_VIRTUAL_LEVEL));
+			assertEquals(level - 1, XpCurve.levelForXp(threshold - 1, XpCurve.MAX_VIRTUAL_LEVEL));
+		}
+
+		assertEquals(99, XpCurve.levelForXp(XpCurve.MAX_XP, XpCurve.MAX_LEVEL));
+		assertEquals(126, XpCurve.levelForXp(XpCurve.MAX_XP, XpCurve.MAX_VIRTUAL_LEVEL));
+		assertEquals(referenceXpForLevel(126), XpCurve.xpForNextLevel(126, XpCurve.MAX_VIRTUAL_LEVEL));
+	}
+
+	@Test
+	public void xpForNextLevelStopsAtMax()
+	{
+		assertEquals(referenceXpForLevel(2), XpCurve.xpForNextLevel(1, XpCurve.MAX_LEVEL));
+		assertEquals(referenceXpForLevel(99), XpCurve.xpForNextLevel(98, XpCurve.MAX_LEVEL));
+		assertEquals(referenceXpForLevel(99), XpCurve.xpForNextLevel(99, XpCurve.MAX_LEVEL));
+	}
+}
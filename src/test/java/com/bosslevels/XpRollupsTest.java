@@ -0,0 +1,163 @@
+package com.bosslevels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import org.junit.Test;
+
+public class XpRollupsTest
+{
+	private static final long HOUR = 3_600;
+	private static final long DAY = 86_400;
+
+	// Monday 2024-01-01 00:00 UTC
+	private static final long MONDAY = LocalDate.of(2024, 1, 1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+
+	private final XpRollups rollups = new XpRollups(ZoneOffset.UTC);
+
+	@Test
+	public void gainsLandInTheirDayAndWeek()
+	{
+		rollups.add(BossDefinition.VORKATH, MONDAY + 10 * HOUR, 900, 1);
+		rollups.add(BossDefinition.VORKATH, MONDAY + 10 * HOUR + 60, 1_800, 2);
+		rollups.add(BossDefinition.VORKATH, MONDAY + DAY + 1, 900, 1);
+		rollups.add(BossDefinition.ZULRAH, MONDAY + 10 * HOUR, 5, 1);
+
+		long day = rollups.key(XpRollups.Resolution.DAY, MONDAY + 10 * HOUR);
+		assertEquals(2_700, rollups.xp(BossDefinition.VORKATH, XpRollups.Resolution.DAY, day));
+		assertEquals(3, rollups.kills(BossDefinition.VORKATH, XpRollups.Resolution.DAY, day));
+		assertEquals(2_700, rollups.xpToday(BossDefinition.VORKATH, MONDAY + 23 * HOUR));
+		assertEquals(900, rollups.xpToday(BossDefinition.VORKATH, MONDAY + DAY));
+		assertEquals(3_600, rollups.xpThisWeek(BossDefinition.VORKATH, MONDAY + 6 * DAY));
+		assertEquals(5, rollups.xpToday(BossDefinition.ZULRAH, MONDAY));
+	}
+
+	@Test
+	public void weeksStartOnMonday()
+	{
+		long week = rollups.key(XpRollups.Resolution.WEEK, MONDAY);
+		assertEquals(week - 1, rollups.key(XpRollups.Resolution.WEEK, MONDAY - 1));
+		assertEquals(week, rollups.key(XpRollups.Resolution.WEEK, MONDAY + 7 * DAY - 1));
+		assertEquals(week + 1, rollups.key(XpRollups.Resolution.WEEK, MONDAY + 7 * DAY));
+	}
+
+	@Test
+	public void keysFollowTheLocalZone()
+	{
+		XpRollups sydney = new XpRollups(ZoneOffset.ofHours(10));
+		long evening = MONDAY + 20 * HOUR;
+		assertEquals(rollups.key(XpRollups.Resolution.DAY, evening) + 1, sydney.key(XpRollups.Resolution.DAY, evening));
+	}
+
+	@Test
+	public void bucketRollsOverOnceTheRingComesAround()
+	{
+		int days = XpRollups.Resolution.DAY.buckets;
+		rollups.add(BossDefinition.VORKATH, MONDAY, 900, 1);
+
+		// Same slot, one lap later: the old day is gone, the new one starts from zero
+		long later = MONDAY + days * DAY;
+		rollups.add(BossDefinition.VORKATH, later, 1_800, 2);
+		assertEquals(1_800, rollups.xpToday(BossDefinition.VORKATH, later));
+		assertEquals(0, rollups.xpToday(BossDefinition.VORKATH, MONDAY));
+
+		// Older than the day now in that slot: dropped
+		rollups.add(BossDefinition.VORKATH, MONDAY, 900, 1);
+		assertEquals(1_800, rollups.xpToday(BossDefinition.VORKATH, later));
+		assertEquals(0, rollups.xpToday(BossDefinition.VORKATH, MONDAY));
+	}
+
+	@Test
+	public void killsPerDayEndsTodayOldestFirst()
+	{
+		rollups.add(BossDefinition.VORKATH, MONDAY, 900, 1);
+		rollups.add(BossDefinition.VORKATH, MONDAY + 2 * DAY, 2_700, 3);
+		rollups.add(BossDefinition.VORKATH, MONDAY + 4 * DAY, 1_800, 2);
+
+		assertArrayEquals(new int[]{1, 0, 3, 0, 2}, rollups.killsPerDay(BossDefinition.VORKATH, MONDAY + 4 * DAY, 5));
+		assertEquals(XpRollups.Resolution.DAY.buckets, rollups.killsPerDay(BossDefinition.VORKATH, MONDAY, 1_000).length);
+	}
+
+	@Test
+	public void roundTripKeepsLiveBucketsOnly()
+	{
+		long now = MONDAY + 40 * DAY;
+		rollups.add(BossDefinition.VORKATH, MONDAY, 900, 1);
+		rollups.add(BossDefinition.VORKATH, now - HOUR, 1_800, 2);
+		rollups.add(BossDefinition.ZULRAH, now, 5, 1);
+
+		XpRollups copy = new XpRollups(ZoneOffset.UTC);
+		assertTrue(copy.decode(rollups.encode(now)));
+		for (XpRollups.Resolution r : XpRollups.Resolution.values())
+		{
+			long key = rollups.key(r, now - HOUR);
+			assertEquals(r.toString(), rollups.xp(BossDefinition.VORKATH, r, key), copy.xp(BossDefinition.VORKATH, r, key));
+			assertEquals(r.toString(), rollups.kills(BossDefinition.VORKATH, r, key), copy.kills(BossDefinition.VORKATH, r, key));
+		}
+		assertEquals(5, copy.xpToday(BossDefinition.ZULRAH, now));
+
+		// 40 days ago is outside the day ring but inside the week ring
+		assertEquals(0, copy.xpToday(BossDefinition.VORKATH, MONDAY));
+		assertEquals(900, copy.xp(BossDefinition.VORKATH, XpRollups.Resolution.WEEK, rollups.key(XpRollups.Resolution.WEEK, MONDAY)));
+	}
+
+	@Test
+	public void truncatedInputIsRejectedAndLeavesNothing()
+	{
+		rollups.add(BossDefinition.VORKATH, MONDAY, 900, 1);
+		rollups.add(BossDefinition.ZULRAH, MONDAY, 5, 1);
+		byte[] full = Base64.getDecoder().decode(rollups.encode(MONDAY));
+
+		for (int length = 0; length < full.length; length++)
+		{
+			XpRollups copy = new XpRollups(ZoneOffset.UTC);
+			copy.add(BossDefinition.KRAKEN, MONDAY, 1, 1);
+			String truncated = Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(full, length));
+			assertFalse("length " + length, copy.decode(truncated));
+			assertEquals(0, copy.xpToday(BossDefinition.KRAKEN, MONDAY));
+			assertEquals(0, copy.xpToday(BossDefinition.VORKATH, MONDAY));
+		}
+	}
+
+	@Test
+	public void corruptInputIsRejected()
+	{
+		assertFalse(rollups.decode(null));
+		assertFalse(rollups.decode("not base64!"));
+
+		byte[] buf = new byte[4];
+		int pos = BossStateCodec.writeVarint(buf, 0, 3);
+		pos = BossStateCodec.writeVarint(buf, pos, 0);
+		assertFalse(rollups.decode(Base64.getEncoder().encodeToString(Arrays.copyOf(buf, pos))));
+	}
+
+	@Test
+	public void versionOneHourBucketsAreSkipped()
+	{
+		// Version 1, one boss: two hour buckets, then one day and one week bucket
+		long day = rollups.key(XpRollups.Resolution.DAY, MONDAY);
+		long week = rollups.key(XpRollups.Resolution.WEEK, MONDAY);
+		long[] values = {
+				1, 1, BossStateCodec.stableId(BossDefinition.VORKATH),
+				2, day * 24, 489, 1, day * 24 + 1, 978, 2,
+				1, day, 1_467, 3,
+				1, week, 1_467, 3,
+		};
+		byte[] buf = new byte[values.length * 10];
+		int pos = 0;
+		for (long v : values)
+		{
+			pos = BossStateCodec.writeVarint(buf, pos, v);
+		}
+
+		assertTrue(rollups.decode(Base64.getEncoder().encodeToString(Arrays.copyOf(buf, pos))));
+		assertEquals(1_467, rollups.xpToday(BossDefinition.VORKATH, MONDAY));
+		assertEquals(3, rollups.kills(BossDefinition.VORKATH, XpRollups.Resolution.DAY, day));
+		assertEquals(1_467, rollups.xpThisWeek(BossDefinition.VORKATH, MONDAY));
+	}
+}